@@ -134,6 +134,9 @@ function formatWorldState(
     if (state.player.held_item) {
       parts.push(`Holding: ${state.player.held_item}`);
     }
+    if (state.player.room) {
+      parts.push(`Player is in: ${state.player.room}`);
+    }
   }
 
   // Josh state
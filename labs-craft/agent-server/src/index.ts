@@ -1,14 +1,16 @@
 import express from "express";
 import cors from "cors";
+import { WebSocket, WebSocketServer } from "ws";
 import { loadConfig, LLMConfig } from "./config";
 import { initDatabase } from "./database";
-import { WorldState, AgentResponse, AgentAction } from "./types";
+import { WorldState, AgentResponse, AgentAction, BatchTickRequest, BatchTickResponse, ActionsFrame } from "./types";
 import { LLMProvider } from "./llm/provider";
 import { ClaudeProvider } from "./llm/claude";
 import { GeminiProvider } from "./llm/gemini";
 import { OllamaProvider } from "./llm/ollama";
 import { JOSH_SYSTEM_PROMPT } from "./prompts/josh";
 import { buildContext } from "./context";
+import { resolveWorldState } from "./snapshots";
 import { shouldRespond, TriggerResult } from "./triggers";
 import {
   extractMemories,
@@ -21,7 +23,8 @@ const config = loadConfig();
 const app = express();
 
 app.use(cors());
-app.use(express.json());
+// Batched ticks carry every nearby player's state in one body
+app.use(express.json({ limit: "1mb" }));
 
 // Initialize SQLite
 const db = initDatabase(config);
@@ -279,17 +282,17 @@ app.get("/health", (_req, res) => {
   });
 });
 
-app.post("/api/agent/tick", async (req, res) => {
+// Decides Josh's actions for one player's world state
+async function handleTick(incoming: WorldState): Promise<AgentResponse> {
   const start = Date.now();
-
-  if (!validateWorldState(req.body)) {
-    res.status(400).json({
-      error: "Invalid WorldState: must include at least player.name",
-    });
-    return;
+  const state = resolveWorldState(incoming);
+  if (!state) {
+    return {
+      actions: [],
+      resync: true,
+      debug: { trigger: "resync", latency_ms: Date.now() - start },
+    };
   }
-
-  const state = req.body as WorldState;
   const playerUuid = state.player.name;
 
   // Log incoming events to SQLite
@@ -300,14 +303,13 @@ app.post("/api/agent/tick", async (req, res) => {
 
   if (!trigger.shouldRespond) {
     // Nothing to do — return empty actions
-    res.json({
+    return {
       actions: [],
       debug: {
         trigger: "none",
         latency_ms: Date.now() - start,
       },
-    } as AgentResponse);
-    return;
+    };
   }
 
   console.log(
@@ -355,7 +357,7 @@ app.post("/api/agent/tick", async (req, res) => {
     logJoshResponse(playerUuid, actions);
   }
 
-  const response: AgentResponse = {
+  return {
     actions,
     debug: {
       trigger: triggerLabel,
@@ -363,10 +365,97 @@ app.post("/api/agent/tick", async (req, res) => {
       latency_ms: Date.now() - start,
     },
   };
+}
 
-  res.json(response);
+app.post("/api/agent/tick", async (req, res) => {
+  if (!validateWorldState(req.body)) {
+    res.status(400).json({
+      error: "Invalid WorldState: must include at least player.name",
+    });
+    return;
+  }
+
+  res.json(await handleTick(req.body as WorldState));
 });
 
+// One request per server tick for every player near Josh; results come back in state order
+app.post("/api/agent/tick/batch", async (req, res) => {
+  const states: unknown = (req.body as Partial<BatchTickRequest> | undefined)?.states;
+  if (!Array.isArray(states)) {
+    res.status(400).json({ error: "Invalid batch: must include a states array" });
+    return;
+  }
+
+  const results = await Promise.all(
+    states.map((state): Promise<AgentResponse> =>
+      validateWorldState(state)
+        ? handleTick(state)
+        : Promise.resolve({ actions: [], debug: { trigger: "invalid", latency_ms: 0 } })
+    )
+  );
+
+  res.json({ results } as BatchTickResponse);
+});
+
+// ── WebSocket transport: tick frames up, one actions frame per player down ──
+
+function sendFrame(socket: WebSocket, frame: ActionsFrame): void {
+  if (socket.readyState === WebSocket.OPEN) {
+    socket.send(JSON.stringify(frame));
+  }
+}
+
+function handleSocket(socket: WebSocket): void {
+  console.log("[ws] Mod connected");
+
+  socket.on("message", (data) => {
+    let frame: { type?: unknown; states?: unknown };
+    try {
+      frame = JSON.parse(data.toString());
+    } catch {
+      console.warn("[ws] Ignoring frame that is not JSON");
+      return;
+    }
+    if (frame.type !== "tick" || !Array.isArray(frame.states)) {
+      console.warn(`[ws] Ignoring frame of type ${String(frame.type)}`);
+      return;
+    }
+
+    // Each player's reply goes out as soon as it is ready, so a slow LLM call holds up no one else
+    for (const state of frame.states) {
+      if (!validateWorldState(state)) {
+        // Answer anyway, as the batch endpoint does, so the mod stops waiting on this player
+        const player: unknown = (state as { player?: { name?: unknown } } | null)?.player?.name;
+        if (typeof player === "string") {
+          sendFrame(socket, {
+            type: "actions",
+            player,
+            actions: [],
+            debug: { trigger: "invalid", latency_ms: 0 },
+          });
+        }
+        continue;
+      }
+      const player = state.player.name;
+      handleTick(state)
+        .then((response) => sendFrame(socket, { type: "actions", player, ...response }))
+        .catch((e: unknown) => {
+          const msg = e instanceof Error ? e.message : String(e);
+          console.error(`[ws] Tick failed for ${player}: ${msg}`);
+          sendFrame(socket, {
+            type: "actions",
+            player,
+            actions: [],
+            debug: { trigger: "error", latency_ms: 0 },
+          });
+        });
+    }
+  });
+
+  socket.on("close", () => console.log("[ws] Mod disconnected"));
+  socket.on("error", (e) => console.warn(`[ws] Socket error: ${e.message}`));
+}
+
 function getFallbackActions(state: WorldState): AgentAction[] {
   const stage = state.quest?.current_stage ?? "NOT_STARTED";
   return FALLBACK_RESPONSES[stage] ?? FALLBACK_RESPONSES["NOT_STARTED"];
@@ -375,11 +464,13 @@ function getFallbackActions(state: WorldState): AgentAction[] {
 // ── Start ──
 
 initLLM().then(() => {
-  app.listen(config.port, () => {
+  const server = app.listen(config.port, () => {
     console.log(
       `[agent-server] LabsCraft Agent Server v0.2.0 on port ${config.port}`
     );
     console.log(`[agent-server] LLM: ${llmProvider?.name ?? "none (hardcoded fallback)"}`);
-    console.log(`[agent-server] POST /api/agent/tick | GET /health`);
+    console.log(`[agent-server] POST /api/agent/tick | POST /api/agent/tick/batch | WS /api/agent/ws | GET /health`);
   });
+
+  new WebSocketServer({ server, path: "/api/agent/ws" }).on("connection", handleSocket);
 });
@@ -0,0 +1,58 @@
+import { WorldState } from "./types";
+
+// ── Delta-encoded world states: the last full state seen per player ──
+
+interface Snapshot {
+  seq: number;
+  state: WorldState;
+}
+
+const snapshots: Map<string, Snapshot> = new Map();
+
+/**
+ * Turns an incoming state into a complete one. Full states replace the player's snapshot;
+ * deltas are merged into it one level deep. Returns null if a delta's base isn't the snapshot
+ * held here (server restarted, a batch was lost), meaning the mod must resend in full.
+ * States without a seq come from clients that don't delta-encode and pass through as they are.
+ */
+export function resolveWorldState(incoming: WorldState): WorldState | null {
+  const playerKey = incoming.player.name;
+  const events = incoming.recent_events ?? [];
+
+  if (incoming.seq === undefined) return incoming;
+
+  let state: WorldState;
+  if (incoming.full) {
+    state = { ...incoming };
+  } else {
+    const previous = snapshots.get(playerKey);
+    if (!previous || previous.seq !== incoming.base) {
+      snapshots.delete(playerKey);
+      return null;
+    }
+    state = mergeSections(previous.state, incoming);
+  }
+
+  delete state.seq;
+  delete state.base;
+  delete state.full;
+  state.recent_events = [];
+  snapshots.set(playerKey, { seq: incoming.seq, state });
+  return { ...state, recent_events: events };
+}
+
+// A null in a delta clears the field, whether it was set to null or dropped from the state;
+// spreading a section keeps those nulls rather than skipping them
+function mergeSections(previous: WorldState, delta: WorldState): WorldState {
+  const merged: Record<string, unknown> = { ...previous };
+  for (const [key, value] of Object.entries(delta)) {
+    const old = merged[key];
+    merged[key] =
+      isSection(value) && isSection(old) ? { ...old, ...value } : value;
+  }
+  return merged as unknown as WorldState;
+}
+
+function isSection(value: unknown): value is Record<string, unknown> {
+  return typeof value === "object" && value !== null && !Array.isArray(value);
+}
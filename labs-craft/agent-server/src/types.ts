@@ -15,6 +15,7 @@ export interface PlayerState {
   held_item: string | null;
   is_sneaking: boolean;
   biome: string;
+  room: string | null; // campus room id, "hallway", or null outside the Googleplex
 }
 
 export interface JoshState {
@@ -51,6 +52,10 @@ export interface WorldState {
   quest: QuestState;
   world: WorldInfo;
   recent_events: RecentEvent[];
+  // Delta encoding: a "full" state has every field; otherwise only what changed since seq "base"
+  seq?: number;
+  base?: number;
+  full?: boolean;
 }
 
 // ── Agent Actions: returned from agent server → Fabric mod ──
@@ -104,9 +109,33 @@ export type AgentAction =
 
 export interface AgentResponse {
   actions: AgentAction[];
+  resync?: boolean; // delta didn't match our snapshot; send the next state in full
   debug?: {
     trigger: string;
     reasoning?: string;
     latency_ms: number;
   };
 }
+
+// ── Batched tick: every state the mod queued during one server tick ──
+
+export interface BatchTickRequest {
+  states: WorldState[];
+}
+
+export interface BatchTickResponse {
+  results: AgentResponse[]; // one per state, in request order
+}
+
+// ── WebSocket frames on /api/agent/ws ──
+
+export interface TickFrame {
+  type: "tick";
+  states: WorldState[];
+}
+
+// Sent once per player as each reply is ready, or unprompted
+export interface ActionsFrame extends AgentResponse {
+  type: "actions";
+  player: string;
+}
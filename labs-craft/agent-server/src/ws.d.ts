@@ -0,0 +1,19 @@
+// Minimal typings for the parts of "ws" the agent socket uses; ws ships without its own types
+declare module "ws" {
+  import { EventEmitter } from "events";
+  import { IncomingMessage, Server } from "http";
+
+  export class WebSocket extends EventEmitter {
+    static readonly OPEN: number;
+    readonly readyState: number;
+    send(data: string): void;
+    on(event: "message", listener: (data: Buffer) => void): this;
+    on(event: "close", listener: () => void): this;
+    on(event: "error", listener: (error: Error) => void): this;
+  }
+
+  export class WebSocketServer extends EventEmitter {
+    constructor(options: { server: Server; path?: string });
+    on(event: "connection", listener: (socket: WebSocket, request: IncomingMessage) => void): this;
+  }
+}
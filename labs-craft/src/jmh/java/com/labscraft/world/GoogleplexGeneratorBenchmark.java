@@ -0,0 +1,114 @@
+package com.labscraft.world;
+
+import net.minecraft.util.math.BlockPos;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the Googleplex layout, run headlessly against in-memory sinks. The
+ * {@code blocks} counter reports generator writes per second, the gc profiler configured in
+ * build.gradle reports allocation, and {@link #phase} times each build phase on its own.
+ */
+@State(Scope.Thread)
+public class GoogleplexGeneratorBenchmark {
+    private static final long SEED = 1234L;
+
+    private GoogleplexGenerator generator;
+    private TileOrder order;
+    private PackedSink sink;
+
+    /** Generator writes, reported by JMH as a rate next to the primary score. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class BlockCounter {
+        public long blocks;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            blocks = 0;
+        }
+    }
+
+    /** Phase to time; no values listed, so JMH runs every phase. */
+    @State(Scope.Thread)
+    public static class PhaseParam {
+        @Param
+        public GoogleplexGenerator.Phase phase;
+    }
+
+    /** One byte per voxel of the blueprint box, so writes themselves allocate nothing. */
+    private static final class PackedSink implements BlockSink<CampusBlock> {
+        private final TileOrder order;
+        private final byte[] cells;
+        private long writes;
+
+        PackedSink(TileOrder order) {
+            this.order = order;
+            this.cells = new byte[order.volume()];
+        }
+
+        @Override
+        public void setBlock(int x, int y, int z, CampusBlock block) {
+            cells[order.index(x, y, z)] = (byte) (block.ordinal() + 1);
+            writes++;
+        }
+
+        long takeWrites() {
+            long taken = writes;
+            writes = 0;
+            return taken;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        generator = new GoogleplexGenerator(BlockPos.ORIGIN, SEED);
+        order = GoogleplexGenerator.blueprintOrder();
+        sink = new PackedSink(order);
+    }
+
+    /** The whole layout into a preallocated sink: the generator's own cost. */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public byte[] generateCampus(BlockCounter counter) {
+        generator.generate(sink);
+        counter.blocks += sink.takeWrites();
+        return sink.cells;
+    }
+
+    /** Every tile composed into its own buffer, as the blueprint compiler does on one thread. */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void composeTiles(BlockCounter counter, Blackhole blackhole) {
+        for (int t = 0; t < order.tileCount(); t++) {
+            int minX = order.tileMinX(t);
+            int minZ = order.tileMinZ(t);
+            VoxelBuffer<CampusBlock> voxels = generator.compose(minX, minZ,
+                minX + order.tileWidth(t), minZ + order.tileDepth(t));
+            counter.blocks += voxels.getWrites();
+            blackhole.consume(voxels);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public byte[] phase(PhaseParam param, BlockCounter counter) {
+        generator.generatePhase(sink, param.phase);
+        counter.blocks += sink.takeWrites();
+        return sink.cells;
+    }
+}
@@ -14,6 +14,12 @@ import com.labscraft.network.NanoBananaConsolePackets;
 import com.labscraft.network.VeoConsolePackets;
 import com.labscraft.screen.ModScreenHandlers;
 import com.labscraft.world.GoogleplexAutoGenerator;
+import com.labscraft.world.GoogleplexBlueprints;
+import com.labscraft.world.GoogleplexBuildScheduler;
+import com.labscraft.world.LabsBlockIndex;
+import com.labscraft.world.MineRegenerator;
+import com.labscraft.world.ModStructures;
+import com.labscraft.world.PendingCampusApplier;
 import com.labscraft.world.ModWorldGeneration;
 import net.fabricmc.api.ModInitializer;
 import org.slf4j.Logger;
@@ -34,8 +40,14 @@ public class LabsCraft implements ModInitializer {
         NanoBananaConsolePackets.registerServer();
         VeoConsolePackets.registerServer();
         FlowCraftingTablePackets.registerServer();
+        ModStructures.registerStructures();
+        GoogleplexBlueprints.register();
         ModWorldGeneration.registerWorldGeneration();
         ModCommands.registerCommands();
+        LabsBlockIndex.register();
+        GoogleplexBuildScheduler.register();
+        MineRegenerator.register();
+        PendingCampusApplier.register();
         GoogleplexAutoGenerator.register();
 
         // Initialize agentic NPC system
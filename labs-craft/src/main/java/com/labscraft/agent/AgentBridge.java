@@ -3,18 +3,30 @@ package com.labscraft.agent;
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 import com.labscraft.LabsCraft;
 import com.labscraft.entity.JoshWoodwardEntity;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -32,19 +44,50 @@ public class AgentBridge {
     // Per-player action executors
     private final ConcurrentMap<String, ActionExecutor> executors = new ConcurrentHashMap<>();
 
-    // Track in-flight requests to avoid stacking
+    // Track queued and in-flight states per player to avoid stacking
     private final ConcurrentMap<String, Boolean> inFlight = new ConcurrentHashMap<>();
 
+    // Last state sent per player, so only what changed goes out
+    private final ConcurrentMap<String, WorldStateDelta> deltas = new ConcurrentHashMap<>();
+
+    // World states queued during the current server tick, sent together at its end
+    private record PendingTick(ServerPlayerEntity player, JsonObject worldState) {}
+    private final List<PendingTick> pending = new ArrayList<>();
+
+    // Request bodies not being read by a request in flight; a couple cover any overlap between ticks
+    private static final int MAX_POOLED_BODIES = 4;
+    private final Queue<JsonBodyBuffer> bodies = new ConcurrentLinkedQueue<>();
+
+    // WebSocket transport only: the open connection, and players awaiting actions by name, with
+    // the time their reply is given up on, as an HTTP request would time out
+    private record Awaiting(String playerKey, long deadlineMillis) {}
+    @Nullable
+    private final AgentSocket socket;
+    private final ConcurrentMap<String, Awaiting> awaiting = new ConcurrentHashMap<>();
+    private volatile MinecraftServer server;
+
     private AgentBridge(AgentConfig config) {
         this.config = config;
         this.httpClient = HttpClient.newBuilder()
                 .connectTimeout(Duration.ofMillis(config.getTimeoutMs()))
                 .build();
+        this.socket = config.usesWebSocket()
+                ? new AgentSocket(httpClient, config.getServerUrl(), Duration.ofMillis(config.getTimeoutMs()),
+                        this::handleFrame, this::handleSocketClosed)
+                : null;
+        if (socket != null) {
+            socket.connect();
+        }
     }
 
     public static void init(AgentConfig config) {
         instance = new AgentBridge(config);
-        LabsCraft.LOGGER.info("[AgentBridge] Initialized, server: {}", config.getServerUrl());
+        ServerTickEvents.END_SERVER_TICK.register(server -> instance.flush(server));
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> {
+            if (instance.socket != null) instance.socket.close();
+        });
+        LabsCraft.LOGGER.info("[AgentBridge] Initialized, server: {}, transport: {}",
+                config.getServerUrl(), config.getTransport());
     }
 
     public static AgentBridge getInstance() {
@@ -52,6 +95,14 @@ public class AgentBridge {
     }
 
     public boolean isAvailable() {
+        if (socket != null) {
+            // The open connection is the health check; reconnect periodically while it is down
+            if (!socket.isOpen() && System.currentTimeMillis() - lastHealthCheck > HEALTH_CHECK_INTERVAL_MS) {
+                lastHealthCheck = System.currentTimeMillis();
+                socket.connect();
+            }
+            return socket.isOpen();
+        }
         if (!serverAvailable.get()) {
             // Periodically retry
             if (System.currentTimeMillis() - lastHealthCheck > HEALTH_CHECK_INTERVAL_MS) {
@@ -68,11 +119,17 @@ public class AgentBridge {
         );
     }
 
+    /**
+     * Queues a player's world state for this tick's batch. Every state queued during a server tick
+     * goes out in one request when the tick ends, so the request rate stays flat however many
+     * players are near Josh. Only the fields that changed since the player's last state are sent,
+     * and nothing at all if none that matter did and no events happened.
+     */
     public void sendWorldState(ServerPlayerEntity player, JoshWoodwardEntity josh,
                                JsonObject worldState, RecentEventsTracker eventsTracker) {
         String playerKey = player.getUuidAsString();
 
-        // Don't stack requests for the same player
+        // Don't stack requests for the same player; their events stay in the tracker for next time
         if (inFlight.getOrDefault(playerKey, false)) {
             return;
         }
@@ -82,68 +139,240 @@ public class AgentBridge {
             worldState.add("recent_events", eventsTracker.drain());
         }
 
-        String body = gson.toJson(worldState);
-        String url = config.getServerUrl() + "/api/agent/tick";
+        JsonObject encoded = deltas.computeIfAbsent(playerKey, k -> new WorldStateDelta())
+                .encode(worldState, System.currentTimeMillis());
+        if (encoded == null) return;
+
+        inFlight.put(playerKey, true);
+        pending.add(new PendingTick(player, encoded));
+    }
+
+    /**
+     * Sends the states queued this tick as one batch: a POST, or a tick frame over the WebSocket.
+     * Runs at the end of every server tick.
+     */
+    public void flush(MinecraftServer server) {
+        this.server = server;
+        if (socket != null && !awaiting.isEmpty()) {
+            expireAwaiting(System.currentTimeMillis());
+        }
+        if (pending.isEmpty()) return;
+
+        List<PendingTick> batch = List.copyOf(pending);
+        pending.clear();
+
+        if (socket != null) {
+            sendFrame(writeBatch("tick", batch), batch);
+            return;
+        }
+
+        JsonBodyBuffer body = writeBatch(null, batch);
+        String url = config.getServerUrl() + "/api/agent/tick/batch";
 
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(url))
                 .header("Content-Type", "application/json")
-                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .POST(body.publisher())
                 .timeout(Duration.ofMillis(config.getTimeoutMs()))
                 .build();
 
-        inFlight.put(playerKey, true);
-
         CompletableFuture<HttpResponse<String>> future = httpClient.sendAsync(
                 request, HttpResponse.BodyHandlers.ofString()
         );
 
+        // The client reads the body until the exchange ends; only then can the buffer be reused
+        future.whenComplete((response, e) -> recycle(body));
         future.thenAccept(response -> {
-            inFlight.put(playerKey, false);
+            release(batch);
 
             if (response.statusCode() == 200) {
                 serverAvailable.set(true);
-                handleResponse(response.body(), player, josh);
+                handleBatchResponse(response.body(), batch);
             } else {
+                resync(batch);
                 LabsCraft.LOGGER.warn("[AgentBridge] Server returned {}: {}",
                         response.statusCode(), response.body());
             }
         }).exceptionally(e -> {
-            inFlight.put(playerKey, false);
+            release(batch);
+            resync(batch);
             serverAvailable.set(false);
             lastHealthCheck = System.currentTimeMillis();
 
             if (config.isDebugLogging()) {
-                LabsCraft.LOGGER.warn("[AgentBridge] Request failed: {}", e.getMessage());
+                LabsCraft.LOGGER.warn("[AgentBridge] Batch of {} failed: {}", batch.size(), e.getMessage());
             }
             return null;
         });
     }
 
-    private void handleResponse(String responseBody, ServerPlayerEntity player,
-                                JoshWoodwardEntity josh) {
+    /**
+     * Streams {@code {"type": type, "states": [...]}} into a pooled buffer, leaving out the type if
+     * null. The states are written as they are; no envelope tree or String is built around them.
+     */
+    private JsonBodyBuffer writeBatch(@Nullable String type, List<PendingTick> batch) {
+        JsonBodyBuffer body = bodies.poll();
+        if (body == null) body = new JsonBodyBuffer();
+
         try {
-            JsonObject response = gson.fromJson(responseBody, JsonObject.class);
-            JsonArray actions = response.getAsJsonArray("actions");
-
-            if (actions != null && !actions.isEmpty()) {
-                ActionExecutor executor = getExecutor(player);
-                // Schedule actions on the main server thread
-                ServerWorld world = (ServerWorld) player.getWorld();
-                world.getServer().execute(() -> {
-                    executor.scheduleActions(actions, 0);
-                });
-
-                if (config.isDebugLogging()) {
-                    JsonObject debug = response.getAsJsonObject("debug");
-                    String trigger = debug != null && debug.has("trigger")
-                            ? debug.get("trigger").getAsString() : "unknown";
-                    LabsCraft.LOGGER.info("[AgentBridge] {} actions from trigger={}",
-                            actions.size(), trigger);
-                }
+            JsonWriter json = body.begin();
+            json.beginObject();
+            if (type != null) json.name("type").value(type);
+            json.name("states").beginArray();
+            for (PendingTick tick : batch) {
+                JsonBodyBuffer.write(json, tick.worldState());
+            }
+            json.endArray().endObject();
+            json.flush();
+        } catch (IOException e) {
+            // The writer only writes to memory, so this doesn't happen
+            throw new UncheckedIOException(e);
+        }
+        return body;
+    }
+
+    private void recycle(JsonBodyBuffer body) {
+        if (bodies.size() < MAX_POOLED_BODIES) {
+            bodies.add(body);
+        }
+    }
+
+    private void sendFrame(JsonBodyBuffer body, List<PendingTick> batch) {
+        long deadline = System.currentTimeMillis() + config.getTimeoutMs();
+        for (PendingTick tick : batch) {
+            awaiting.put(tick.player().getName().getString(), new Awaiting(tick.player().getUuidAsString(), deadline));
+        }
+        if (socket.send(body, () -> recycle(body))) return;
+
+        // Dropped since isAvailable() was checked; the states go again on a later tick
+        recycle(body);
+        for (PendingTick tick : batch) {
+            awaiting.remove(tick.player().getName().getString());
+        }
+        release(batch);
+        resync(batch);
+    }
+
+    /**
+     * Handles a frame from the agent server, on the socket's thread. Actions come one frame per
+     * player, as each reply is ready; the server may also send actions nobody asked for.
+     */
+    private void handleFrame(JsonObject frame) {
+        if (!frame.has("type") || !"actions".equals(frame.get("type").getAsString()) || !frame.has("player")) {
+            LabsCraft.LOGGER.warn("[AgentBridge] Ignoring frame: {}", frame);
+            return;
+        }
+
+        String name = frame.get("player").getAsString();
+        Awaiting waiting = awaiting.remove(name);
+        if (waiting != null) {
+            inFlight.put(waiting.playerKey(), false);
+        }
+
+        MinecraftServer current = server;
+        if (current == null) return;
+        current.execute(() -> {
+            ServerPlayerEntity player = current.getPlayerManager().getPlayer(name);
+            if (player != null) {
+                handleResponse(frame, player);
             }
+        });
+    }
+
+    /**
+     * Gives up on replies that are overdue, so a state the server never answers, or an LLM call
+     * that hangs, can't keep a player from sending for as long as the socket stays open.
+     */
+    private void expireAwaiting(long nowMillis) {
+        Iterator<Awaiting> it = awaiting.values().iterator();
+        while (it.hasNext()) {
+            Awaiting waiting = it.next();
+            if (nowMillis < waiting.deadlineMillis()) continue;
+
+            it.remove();
+            inFlight.put(waiting.playerKey(), false);
+            // Whether the server took the state is unknown, so it can't be the next delta's base
+            WorldStateDelta delta = deltas.get(waiting.playerKey());
+            if (delta != null) delta.resync();
+            LabsCraft.LOGGER.debug("[AgentBridge] No reply for {} within {} ms", waiting.playerKey(), config.getTimeoutMs());
+        }
+    }
+
+    private void handleSocketClosed() {
+        // Nothing more will answer the states still out; let those players send again
+        for (Awaiting waiting : awaiting.values()) {
+            inFlight.put(waiting.playerKey(), false);
+        }
+        awaiting.clear();
+        // Frames lost with the connection would leave the server's snapshots behind
+        for (WorldStateDelta delta : deltas.values()) {
+            delta.resync();
+        }
+        lastHealthCheck = System.currentTimeMillis();
+    }
+
+    // The server may not have the states of a failed batch, so they can't be a delta's base
+    private void resync(List<PendingTick> batch) {
+        for (PendingTick tick : batch) {
+            WorldStateDelta delta = deltas.get(tick.player().getUuidAsString());
+            if (delta != null) delta.resync();
+        }
+    }
+
+    private void release(List<PendingTick> batch) {
+        for (PendingTick tick : batch) {
+            inFlight.put(tick.player().getUuidAsString(), false);
+        }
+    }
+
+    private void handleBatchResponse(String responseBody, List<PendingTick> batch) {
+        JsonArray results;
+        try {
+            results = gson.fromJson(responseBody, JsonObject.class).getAsJsonArray("results");
         } catch (Exception e) {
             LabsCraft.LOGGER.warn("[AgentBridge] Failed to parse response: {}", e.getMessage());
+            return;
+        }
+
+        // Results come back in the order the states were sent
+        if (results == null || results.size() != batch.size()) {
+            LabsCraft.LOGGER.warn("[AgentBridge] Expected {} results, got {}",
+                    batch.size(), results == null ? "none" : results.size());
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                handleResponse(results.get(i).getAsJsonObject(), batch.get(i).player());
+            } catch (Exception e) {
+                LabsCraft.LOGGER.warn("[AgentBridge] Failed to parse result {}: {}", i, e.getMessage());
+            }
+        }
+    }
+
+    private void handleResponse(JsonObject response, ServerPlayerEntity player) {
+        // The server's snapshot doesn't match the delta's base; send the next state in full
+        if (response.has("resync") && response.get("resync").getAsBoolean()) {
+            WorldStateDelta delta = deltas.get(player.getUuidAsString());
+            if (delta != null) delta.resync();
+        }
+
+        JsonArray actions = response.getAsJsonArray("actions");
+
+        if (actions != null && !actions.isEmpty()) {
+            ActionExecutor executor = getExecutor(player);
+            // Schedule actions on the main server thread
+            ServerWorld world = (ServerWorld) player.getWorld();
+            world.getServer().execute(() -> {
+                executor.scheduleActions(actions, 0);
+            });
+
+            if (config.isDebugLogging()) {
+                JsonObject debug = response.getAsJsonObject("debug");
+                String trigger = debug != null && debug.has("trigger")
+                        ? debug.get("trigger").getAsString() : "unknown";
+                LabsCraft.LOGGER.info("[AgentBridge] {} actions from trigger={}",
+                        actions.size(), trigger);
+            }
         }
     }
 
@@ -13,6 +13,8 @@ public class AgentConfig {
     private int timeout_ms = 500;
     private boolean fallback_to_static = true;
     private boolean debug_logging = false;
+    // "http" posts each tick's batch; "websocket" keeps one connection open for both directions
+    private String transport = "http";
 
     public String getServerUrl() {
         return agent_server_url;
@@ -34,6 +36,14 @@ public class AgentConfig {
         return debug_logging;
     }
 
+    public String getTransport() {
+        return transport;
+    }
+
+    public boolean usesWebSocket() {
+        return "websocket".equalsIgnoreCase(transport);
+    }
+
     public static AgentConfig load() {
         try (InputStream is = AgentConfig.class.getResourceAsStream("/labscraft-agent.json")) {
             if (is == null) {
@@ -41,8 +51,8 @@ public class AgentConfig {
                 return new AgentConfig();
             }
             AgentConfig config = new Gson().fromJson(new InputStreamReader(is), AgentConfig.class);
-            LabsCraft.LOGGER.info("[AgentConfig] Loaded: url={}, tickRate={}, timeout={}ms",
-                    config.agent_server_url, config.tick_rate, config.timeout_ms);
+            LabsCraft.LOGGER.info("[AgentConfig] Loaded: url={}, transport={}, tickRate={}, timeout={}ms",
+                    config.agent_server_url, config.transport, config.tick_rate, config.timeout_ms);
             return config;
         } catch (Exception e) {
             LabsCraft.LOGGER.warn("[AgentConfig] Failed to load config, using defaults: {}", e.getMessage());
@@ -0,0 +1,133 @@
+package com.labscraft.agent;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.labscraft.LabsCraft;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+
+/**
+ * The persistent connection behind the "websocket" transport: one WebSocket per agent server,
+ * carrying JSON frames both ways. Tick frames go up as binary UTF-8 straight from a
+ * {@link JsonBodyBuffer}; action frames come down as text whenever the server has them, one per
+ * player, so a slow reply for one player never holds back the others.
+ */
+class AgentSocket implements WebSocket.Listener {
+    private static final String PATH = "/api/agent/ws";
+
+    private final HttpClient httpClient;
+    private final URI uri;
+    private final Duration connectTimeout;
+    private final Consumer<JsonObject> onFrame;
+    private final Runnable onClosed;
+    private final Gson gson = new Gson();
+
+    // Text of a frame that arrives in several parts
+    private final StringBuilder partial = new StringBuilder();
+    private volatile WebSocket socket;
+    private CompletableFuture<WebSocket> connecting;
+    // A WebSocket takes one outgoing message at a time, so sends queue up behind each other
+    private CompletableFuture<WebSocket> sends = CompletableFuture.completedFuture(null);
+
+    AgentSocket(HttpClient httpClient, String serverUrl, Duration connectTimeout,
+                Consumer<JsonObject> onFrame, Runnable onClosed) {
+        this.httpClient = httpClient;
+        this.uri = URI.create(serverUrl.replaceFirst("^http", "ws") + PATH);
+        this.connectTimeout = connectTimeout;
+        this.onFrame = onFrame;
+        this.onClosed = onClosed;
+    }
+
+    /** Opens the connection unless it is open or already opening. */
+    synchronized void connect() {
+        if (socket != null || (connecting != null && !connecting.isDone())) return;
+
+        connecting = httpClient.newWebSocketBuilder()
+                .connectTimeout(connectTimeout)
+                .buildAsync(uri, this);
+        connecting.exceptionally(e -> {
+            LabsCraft.LOGGER.debug("[AgentSocket] Connecting to {} failed: {}", uri, e.getMessage());
+            return null;
+        });
+    }
+
+    boolean isOpen() {
+        return socket != null;
+    }
+
+    /**
+     * Queues a frame for sending as one binary message of UTF-8 JSON, then runs {@code done} once
+     * the body has been sent or the send failed. Returns false, without running it, if the
+     * connection is not open.
+     */
+    synchronized boolean send(JsonBodyBuffer body, Runnable done) {
+        WebSocket ws = socket;
+        if (ws == null) return false;
+
+        sends = sends.thenCompose(ignored -> ws.sendBinary(body.asByteBuffer(), true))
+                .whenComplete((sent, e) -> done.run())
+                .exceptionally(e -> {
+                    dropped(ws, e);
+                    return null;
+                });
+        return true;
+    }
+
+    synchronized void close() {
+        WebSocket ws = socket;
+        if (ws == null) return;
+        sends.thenCompose(ignored -> ws.sendClose(WebSocket.NORMAL_CLOSURE, "server stopping"));
+    }
+
+    @Override
+    public void onOpen(WebSocket webSocket) {
+        socket = webSocket;
+        LabsCraft.LOGGER.info("[AgentSocket] Connected to {}", uri);
+        webSocket.request(1);
+    }
+
+    @Override
+    public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+        partial.append(data);
+        if (last) {
+            String text = partial.toString();
+            partial.setLength(0);
+            try {
+                onFrame.accept(gson.fromJson(text, JsonObject.class));
+            } catch (Exception e) {
+                LabsCraft.LOGGER.warn("[AgentSocket] Failed to parse frame: {}", e.getMessage());
+            }
+        }
+        webSocket.request(1);
+        return null;
+    }
+
+    @Override
+    public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+        dropped(webSocket, null);
+        return null;
+    }
+
+    @Override
+    public void onError(WebSocket webSocket, Throwable error) {
+        dropped(webSocket, error);
+    }
+
+    private void dropped(WebSocket ws, Throwable error) {
+        synchronized (this) {
+            if (socket != ws) return;
+            socket = null;
+            partial.setLength(0);
+        }
+        if (error != null) {
+            LabsCraft.LOGGER.warn("[AgentSocket] Connection lost: {}", error.getMessage());
+        }
+        onClosed.run();
+    }
+}
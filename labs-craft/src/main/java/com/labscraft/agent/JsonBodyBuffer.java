@@ -0,0 +1,51 @@
+package com.labscraft.agent;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reusable UTF-8 body for agent requests. JSON is streamed straight into the byte array, which is
+ * then handed to the HTTP client or WebSocket as it is, so a body costs no String and no copy. The
+ * array keeps its size between uses, so once it has grown to fit a typical batch, writing one
+ * allocates nothing. The client reads the array after the send call returns, so a buffer may only be
+ * reused once its request has completed.
+ */
+final class JsonBodyBuffer extends ByteArrayOutputStream {
+    // A delta clears a field by sending it as null, so nulls have to reach the wire
+    private static final Gson GSON = new GsonBuilder().serializeNulls().create();
+
+    private final Writer chars = new OutputStreamWriter(this, StandardCharsets.UTF_8);
+
+    JsonBodyBuffer() {
+        super(8192);
+    }
+
+    /** Empties the buffer and returns a writer that streams JSON into it; flush it when done. */
+    JsonWriter begin() throws IOException {
+        reset();
+        return GSON.newJsonWriter(chars);
+    }
+
+    /** Writes a JSON tree where the writer is, null fields included. */
+    static void write(JsonWriter json, JsonElement value) {
+        GSON.toJson(value, json);
+    }
+
+    HttpRequest.BodyPublisher publisher() {
+        return HttpRequest.BodyPublishers.ofByteArray(buf, 0, count);
+    }
+
+    ByteBuffer asByteBuffer() {
+        return ByteBuffer.wrap(buf, 0, count);
+    }
+}
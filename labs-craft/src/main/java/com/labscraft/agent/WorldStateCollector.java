@@ -5,6 +5,8 @@ import com.google.gson.JsonObject;
 import com.labscraft.entity.JoshWoodwardEntity;
 import com.labscraft.quest.QuestManager;
 import com.labscraft.quest.QuestStage;
+import com.labscraft.world.GoogleplexState;
+import com.labscraft.world.LabsBlockIndex;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.item.ItemStack;
@@ -79,6 +81,9 @@ public class WorldStateCollector {
                 .orElse("unknown");
         p.addProperty("biome", biomeName);
 
+        // Campus room from the room registry's grid, no block scan needed
+        p.addProperty("room", GoogleplexState.get((ServerWorld) player.getWorld()).roomAt(blockPos));
+
         return p;
     }
 
@@ -181,19 +186,13 @@ public class WorldStateCollector {
         }
         w.add("nearby_entities", entities);
 
-        // Nearby blocks of interest (simplified — checks for labscraft blocks in 8-block radius)
+        // Nearby blocks of interest: labscraft blocks within 8 blocks across and 3 up or down,
+        // nearest first, from the per-chunk index rather than a block scan
         JsonArray blocks = new JsonArray();
-        BlockPos playerPos = player.getBlockPos();
-        for (int dx = -8; dx <= 8; dx++) {
-            for (int dy = -3; dy <= 3; dy++) {
-                for (int dz = -8; dz <= 8; dz++) {
-                    BlockPos checkPos = playerPos.add(dx, dy, dz);
-                    String blockId = Registries.BLOCK.getId(world.getBlockState(checkPos).getBlock()).toString();
-                    if (blockId.startsWith("labscraft:")) {
-                        blocks.add(blockId + " at " + checkPos.getX() + "," + checkPos.getY() + "," + checkPos.getZ());
-                    }
-                }
-            }
+        for (LabsBlockIndex.Entry entry : LabsBlockIndex.get(world).near(player.getBlockPos(), 8, 3)) {
+            BlockPos pos = entry.pos();
+            blocks.add(Registries.BLOCK.getId(entry.block()) + " at "
+                    + pos.getX() + "," + pos.getY() + "," + pos.getZ());
         }
         w.add("nearby_blocks_of_interest", blocks);
 
@@ -0,0 +1,113 @@
+package com.labscraft.agent;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Delta encoder for one player's world states. The first state, and the first after a
+ * {@link #resync()}, goes out in full; after that only the fields that changed since the last
+ * state sent, one level into each section, with a sequence number the agent server checks against
+ * its own copy. A field that became null or disappeared is sent as null, which is why bodies are
+ * written with nulls kept ({@link JsonBodyBuffer}). A tick where nothing relevant changed and no
+ * events happened isn't sent at all.
+ */
+final class WorldStateDelta {
+    // Fields that change every tick without saying anything new; sent along, but never a reason to send
+    private static final Set<String> VOLATILE = Set.of("timestamp", "josh.last_spoke_ticks_ago");
+    // Even an idle player is sent this often, so the server's time-based triggers still fire
+    static final long KEEPALIVE_MS = 10_000;
+
+    @Nullable
+    private JsonObject last;
+    private int seq;
+    private long lastSentMillis;
+
+    /**
+     * Encodes a collected state, recent events included, for sending. Takes ownership of the state,
+     * which must be freshly collected and not touched afterwards: it becomes the snapshot the next
+     * state is compared with, and the encoded state shares its sections rather than copying them.
+     * Returns null if it need not be sent.
+     */
+    @Nullable
+    synchronized JsonObject encode(JsonObject state, long nowMillis) {
+        JsonElement events = state.remove("recent_events");
+        boolean hasEvents = events instanceof JsonArray array && !array.isEmpty();
+
+        JsonObject encoded = new JsonObject();
+        if (last == null) {
+            for (Map.Entry<String, JsonElement> entry : state.entrySet()) {
+                encoded.add(entry.getKey(), entry.getValue());
+            }
+            encoded.addProperty("full", true);
+        } else {
+            boolean relevant = diff(state, last, encoded);
+            if (!relevant && !hasEvents && nowMillis - lastSentMillis < KEEPALIVE_MS) return null;
+
+            // The server routes and validates by player name, so it always goes along
+            JsonObject player = encoded.has("player") ? encoded.getAsJsonObject("player") : new JsonObject();
+            if (state.getAsJsonObject("player").has("name")) {
+                player.add("name", state.getAsJsonObject("player").get("name"));
+            }
+            encoded.add("player", player);
+            encoded.addProperty("base", seq);
+        }
+        encoded.addProperty("seq", ++seq);
+        if (events != null) encoded.add("recent_events", events);
+
+        last = state;
+        lastSentMillis = nowMillis;
+        return encoded;
+    }
+
+    /** Forgets the last snapshot, so the next state goes out in full. */
+    synchronized void resync() {
+        last = null;
+    }
+
+    // Copies into out what differs from previous, with fields that are gone as null; returns true
+    // if any of it is not volatile
+    private static boolean diff(JsonObject current, JsonObject previous, JsonObject out) {
+        boolean relevant = false;
+        for (Map.Entry<String, JsonElement> entry : current.entrySet()) {
+            String key = entry.getKey();
+            JsonElement value = entry.getValue();
+            JsonElement old = previous.get(key);
+
+            if (value.isJsonObject() && old != null && old.isJsonObject()) {
+                JsonObject section = new JsonObject();
+                relevant |= diffSection(key, value.getAsJsonObject(), old.getAsJsonObject(), section);
+                if (!section.isEmpty()) out.add(key, section);
+            } else if (!value.equals(old)) {
+                out.add(key, value);
+                relevant |= !VOLATILE.contains(key);
+            }
+        }
+        for (String key : previous.keySet()) {
+            if (current.has(key)) continue;
+            out.add(key, JsonNull.INSTANCE);
+            relevant |= !VOLATILE.contains(key);
+        }
+        return relevant;
+    }
+
+    private static boolean diffSection(String name, JsonObject current, JsonObject previous, JsonObject out) {
+        boolean relevant = false;
+        for (Map.Entry<String, JsonElement> field : current.entrySet()) {
+            if (field.getValue().equals(previous.get(field.getKey()))) continue;
+            out.add(field.getKey(), field.getValue());
+            relevant |= !VOLATILE.contains(name + "." + field.getKey());
+        }
+        for (String key : previous.keySet()) {
+            if (current.has(key)) continue;
+            out.add(key, JsonNull.INSTANCE);
+            relevant |= !VOLATILE.contains(name + "." + key);
+        }
+        return relevant;
+    }
+}
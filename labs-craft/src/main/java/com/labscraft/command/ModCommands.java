@@ -1,19 +1,26 @@
 package com.labscraft.command;
 
 import com.labscraft.LabsCraft;
-import com.labscraft.entity.ModEntities;
-import com.labscraft.world.GoogleplexGenerator;
-import com.labscraft.world.GoogleplexState;
+import com.labscraft.world.BuildSnapshot;
+import com.labscraft.world.BuildTask;
+import com.labscraft.world.GenerationMetrics;
+import com.labscraft.world.GoogleplexBuildJob;
+import com.labscraft.world.GoogleplexBlueprints;
+import com.labscraft.world.GoogleplexBuildScheduler;
+import com.labscraft.world.UndoJob;
 import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.context.CommandContext;
 import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
-import net.minecraft.entity.SpawnReason;
 import net.minecraft.server.command.CommandManager;
 import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.text.Text;
 import net.minecraft.util.math.BlockPos;
 
+import java.io.IOException;
+import java.util.List;
+
 public class ModCommands {
     public static void registerCommands() {
         CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, environment) -> {
@@ -27,6 +34,25 @@ public class ModCommands {
             .then(CommandManager.literal("build")
                 .requires(source -> source.hasPermissionLevel(2))
                 .executes(ModCommands::executeBuild)
+                .then(CommandManager.literal("status")
+                    .executes(ModCommands::executeBuildStatus)
+                )
+                .then(CommandManager.literal("cancel")
+                    .executes(context -> executeBuildCancel(context, -1))
+                    .then(CommandManager.argument("id", IntegerArgumentType.integer(1))
+                        .executes(context -> executeBuildCancel(context, IntegerArgumentType.getInteger(context, "id")))
+                    )
+                )
+            )
+            .then(CommandManager.literal("undo")
+                .requires(source -> source.hasPermissionLevel(2))
+                .executes(ModCommands::executeUndo)
+            )
+            .then(CommandManager.literal("stats")
+                .requires(source -> source.hasPermissionLevel(2))
+                .then(CommandManager.literal("build")
+                    .executes(ModCommands::executeBuildStats)
+                )
             )
         );
     }
@@ -36,29 +62,108 @@ public class ModCommands {
         ServerWorld world = source.getWorld();
         BlockPos playerPos = BlockPos.ofFloored(source.getPosition());
 
-        source.sendFeedback(() -> Text.literal("Building Googleplex at " + playerPos + "..."), true);
-
-        // Build the structure
-        GoogleplexGenerator generator = new GoogleplexGenerator(world, playerPos);
-        generator.generate();
-
-        // Spawn Josh Woodward in the lobby
-        BlockPos joshPos = generator.getJoshSpawnPos();
-        var josh = ModEntities.JOSH_WOODWARD.create(world, SpawnReason.COMMAND);
-        if (josh != null) {
-            josh.refreshPositionAndAngles(
-                joshPos.getX() + 0.5, joshPos.getY(), joshPos.getZ() + 0.5,
-                180.0f, 0.0f
-            );
-            world.spawnEntity(josh);
+        // The job builds a slice per tick, spawns Josh in the lobby and marks the world as generated when done
+        GoogleplexBuildJob job = GoogleplexBuildScheduler.start(world, playerPos, false, source);
+        if (job == null) {
+            source.sendError(Text.literal("The Googleplex build queue is full ("
+                + GoogleplexBuildScheduler.MAX_QUEUED + " builds). Cancel one with /labscraft build cancel <id>."));
+            return 0;
         }
 
-        // Mark as generated so auto-generator won't duplicate
-        GoogleplexState state = GoogleplexState.get(world);
-        state.setGenerated(true);
+        int ahead = GoogleplexBuildScheduler.getJobs().size() - 1;
+        if (ahead > 0) {
+            source.sendFeedback(() -> Text.literal("Queued Googleplex build #" + job.getId() + " at " + playerPos
+                + " (" + ahead + " ahead of it)."), true);
+        } else {
+            source.sendFeedback(() -> Text.literal("Building Googleplex #" + job.getId() + " at " + playerPos
+                + " (spread over the next few seconds)..."), true);
+        }
 
-        source.sendFeedback(() -> Text.literal("Googleplex complete! Josh is in the lobby."), true);
+        return 1;
+    }
 
+    private static int executeBuildStatus(CommandContext<ServerCommandSource> context) {
+        ServerCommandSource source = context.getSource();
+        List<BuildTask> jobs = GoogleplexBuildScheduler.getJobs();
+        if (jobs.isEmpty()) {
+            source.sendFeedback(() -> Text.literal("No Googleplex builds running."), false);
+            return 0;
+        }
+
+        for (int i = 0; i < jobs.size(); i++) {
+            BuildTask job = jobs.get(i);
+            String status = i > 0 ? "queued (" + i + " ahead)" : job.describeStatus();
+            String line = "#" + job.getId() + " " + job.getKind() + " at " + job.getOrigin().toShortString()
+                + " by " + job.getRequesterName() + ": " + status;
+            source.sendFeedback(() -> Text.literal(line), false);
+        }
+        return jobs.size();
+    }
+
+    private static int executeBuildCancel(CommandContext<ServerCommandSource> context, int id) {
+        ServerCommandSource source = context.getSource();
+        BuildTask job = GoogleplexBuildScheduler.cancel(id);
+        if (job == null) {
+            source.sendError(Text.literal(id < 0 ? "No Googleplex build is running." : "No Googleplex build #" + id + "."));
+            return 0;
+        }
+
+        source.sendFeedback(() -> Text.literal("Cancelled " + job.getKind() + " #" + job.getId()
+            + "; blocks already placed stay."), true);
         return 1;
     }
+
+    private static int executeUndo(CommandContext<ServerCommandSource> context) {
+        ServerCommandSource source = context.getSource();
+        ServerWorld world = source.getWorld();
+        if (!BuildSnapshot.exists(world)) {
+            source.sendError(Text.literal("There is no Googleplex build to undo in this dimension."));
+            return 0;
+        }
+        if (GoogleplexBuildScheduler.hasTaskIn(world)) {
+            source.sendError(Text.literal("A Googleplex build or undo is still queued in this dimension. "
+                + "Wait for it to finish, or cancel it with /labscraft build cancel <id>."));
+            return 0;
+        }
+
+        UndoJob job;
+        try {
+            job = GoogleplexBuildScheduler.startUndo(world, source);
+        } catch (IOException e) {
+            source.sendError(Text.literal("Could not read the undo snapshot: " + e.getMessage()));
+            return 0;
+        }
+        if (job == null) {
+            source.sendError(Text.literal("The Googleplex build queue is full ("
+                + GoogleplexBuildScheduler.MAX_QUEUED + " tasks). Cancel one with /labscraft build cancel <id>."));
+            return 0;
+        }
+
+        source.sendFeedback(() -> Text.literal("Undoing the Googleplex build at " + job.getOrigin().toShortString()
+            + " (#" + job.getId() + ")..."), true);
+        return 1;
+    }
+
+    private static int executeBuildStats(CommandContext<ServerCommandSource> context) {
+        ServerCommandSource source = context.getSource();
+        // Measured by the last compile; laying the campus out again just to report it would cost another
+        GenerationMetrics metrics = GoogleplexBlueprints.getCompileMetrics(source.getWorld().getSeed());
+        if (metrics == null) {
+            source.sendError(Text.literal("The Googleplex blueprint hasn't been compiled since the server started, "
+                + "so there are no generation stats. Delete config/labscraft/blueprints and restart to measure a compile."));
+            return 0;
+        }
+
+        sendBuildStats(source, metrics);
+        return 1;
+    }
+
+    private static void sendBuildStats(ServerCommandSource source, GenerationMetrics metrics) {
+        String header = String.format("Googleplex generation: %.1f ms over %d tiles, %,d blocks written",
+            metrics.getTotalNanos() / 1e6, metrics.getTiles(), metrics.getTotalBlocks());
+        source.sendFeedback(() -> Text.literal(header), false);
+        for (String line : metrics.describe()) {
+            source.sendFeedback(() -> Text.literal("  " + line), false);
+        }
+    }
 }
@@ -0,0 +1,31 @@
+package com.labscraft.mixin;
+
+import com.labscraft.world.LabsBlockIndex;
+import com.labscraft.world.MineRegenerator;
+import net.minecraft.block.BlockState;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.chunk.WorldChunk;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+/**
+ * Tells {@link LabsBlockIndex} and {@link MineRegenerator} about every block change in a loaded
+ * server chunk: placements, breaks, explosions, pistons and commands all end up here.
+ */
+@Mixin(WorldChunk.class)
+public abstract class WorldChunkMixin {
+    @Inject(method = "setBlockState", at = @At("RETURN"))
+    private void labscraft$indexBlockChange(BlockPos pos, BlockState state, boolean moved,
+                                            CallbackInfoReturnable<BlockState> cir) {
+        // Null means nothing changed
+        BlockState previous = cir.getReturnValue();
+        if (previous == null) return;
+        if (((WorldChunk) (Object) this).getWorld() instanceof ServerWorld world) {
+            LabsBlockIndex.onBlockChanged(world, pos, previous, state);
+            MineRegenerator.onBlockChanged(world, pos, previous, state);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.labscraft.world;
+
+/**
+ * Box, wall and floor primitives the campus is drawn with. Every shape is written as runs along x
+ * through {@link BlockSink#fillRow}, which an in-memory sink turns into a single array fill, so a
+ * row inside a 16-wide tile costs one palette lookup instead of one per block.
+ *
+ * Bounds are min-inclusive and max-exclusive on every axis.
+ */
+final class BlockShapes {
+    /** Block for a cell of a patterned surface, given its two coordinates on that surface. */
+    @FunctionalInterface
+    interface Pattern<T> {
+        T at(int u, int v);
+    }
+
+    private BlockShapes() {
+    }
+
+    static <T> void fillBox(BlockSink<T> sink, int minX, int minY, int minZ, int maxX, int maxY, int maxZ, T block) {
+        if (minX >= maxX) return;
+        for (int y = minY; y < maxY; y++) {
+            for (int z = minZ; z < maxZ; z++) {
+                sink.fillRow(minX, maxX, y, z, block);
+            }
+        }
+    }
+
+    /**
+     * The four side faces of a box, each cell written once; top and bottom stay open, since rooms
+     * get their floors and ceilings separately. A one-high box draws a rectangular outline.
+     */
+    static <T> void hollowBox(BlockSink<T> sink, int minX, int minY, int minZ, int maxX, int maxY, int maxZ, T block) {
+        if (minX >= maxX || minZ >= maxZ) return;
+        for (int y = minY; y < maxY; y++) {
+            sink.fillRow(minX, maxX, y, minZ, block);
+            if (maxZ - 1 > minZ) {
+                sink.fillRow(minX, maxX, y, maxZ - 1, block);
+            }
+            for (int z = minZ + 1; z < maxZ - 1; z++) {
+                sink.setBlock(minX, y, z, block);
+                if (maxX - 1 > minX) {
+                    sink.setBlock(maxX - 1, y, z, block);
+                }
+            }
+        }
+    }
+
+    /** A wall in the plane {@code z}, patterned by {@code (x, y)}. */
+    static <T> void wallAlongX(BlockSink<T> sink, int minX, int maxX, int z, int minY, int maxY, Pattern<T> pattern) {
+        for (int y = minY; y < maxY; y++) {
+            int v = y;
+            patternRow(sink, minX, maxX, y, z, x -> pattern.at(x, v));
+        }
+    }
+
+    /** A wall in the plane {@code x}, patterned by {@code (z, y)}; its cells are not contiguous, so they go one by one. */
+    static <T> void wallAlongZ(BlockSink<T> sink, int x, int minZ, int maxZ, int minY, int maxY, Pattern<T> pattern) {
+        for (int y = minY; y < maxY; y++) {
+            for (int z = minZ; z < maxZ; z++) {
+                sink.setBlock(x, y, z, pattern.at(z, y));
+            }
+        }
+    }
+
+    /** A one-high layer at {@code y}, patterned by {@code (x, z)}. */
+    static <T> void floorPattern(BlockSink<T> sink, int minX, int minZ, int maxX, int maxZ, int y, Pattern<T> pattern) {
+        for (int z = minZ; z < maxZ; z++) {
+            int v = z;
+            patternRow(sink, minX, maxX, y, z, x -> pattern.at(x, v));
+        }
+    }
+
+    private interface RowPattern<T> {
+        T at(int x);
+    }
+
+    // Splits a row into runs of the same block and fills each run at once
+    private static <T> void patternRow(BlockSink<T> sink, int minX, int maxX, int y, int z, RowPattern<T> pattern) {
+        int runStart = minX;
+        T run = null;
+        for (int x = minX; x < maxX; x++) {
+            T block = pattern.at(x);
+            if (block != run) {
+                if (x > runStart) sink.fillRow(runStart, x, y, z, run);
+                runStart = x;
+                run = block;
+            }
+        }
+        if (maxX > runStart) sink.fillRow(runStart, maxX, y, z, run);
+    }
+}
@@ -0,0 +1,23 @@
+package com.labscraft.world;
+
+/**
+ * Destination for generated blocks. Coordinates are relative to whatever the sink is anchored on,
+ * so the same generator can paint into the live world, an in-memory {@link VoxelBuffer} that feeds
+ * the blueprint compiler, or a {@link CountingBlockSink} for tests and benchmarks.
+ *
+ * @param <T> what a block is to this sink, e.g. {@link CampusBlock} or a block state
+ */
+@FunctionalInterface
+public interface BlockSink<T> {
+    void setBlock(int x, int y, int z, T block);
+
+    /**
+     * Writes {@code block} at every {@code minX <= x < maxX} of one row, as if by that many
+     * {@link #setBlock} calls in increasing x. Sinks that store rows contiguously fill them at once.
+     */
+    default void fillRow(int minX, int maxX, int y, int z, T block) {
+        for (int x = minX; x < maxX; x++) {
+            setBlock(x, y, z, block);
+        }
+    }
+}
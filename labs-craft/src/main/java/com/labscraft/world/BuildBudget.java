@@ -0,0 +1,90 @@
+package com.labscraft.world;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Per-tick work allowance for time-sliced builds. A tick ends when either the block
+ * count or the wall-clock limit is used up, whichever comes first.
+ */
+public class BuildBudget {
+    // Reading the clock every block is measurable at these rates, so sample it
+    private static final int CLOCK_CHECK_INTERVAL = 256;
+
+    private final int maxBlocks;
+    private final long maxNanos;
+    private final LongSupplier clock;
+
+    private int blocksUsed;
+    private int checks;
+    private long deadline;
+    private boolean exhausted;
+
+    public BuildBudget(int maxBlocks, long maxNanos) {
+        this(maxBlocks, maxNanos, System::nanoTime);
+    }
+
+    BuildBudget(int maxBlocks, long maxNanos, LongSupplier clock) {
+        this.maxBlocks = maxBlocks;
+        this.maxNanos = maxNanos;
+        this.clock = clock;
+    }
+
+    /** Starts a new tick's allowance. */
+    public void begin() {
+        blocksUsed = 0;
+        checks = 0;
+        deadline = clock.getAsLong() + maxNanos;
+        exhausted = false;
+    }
+
+    /** Claims one block write. Returns false once this tick's allowance is spent. */
+    public boolean tryConsume() {
+        if (exhausted) return false;
+        if (blocksUsed >= maxBlocks) {
+            exhausted = true;
+            return false;
+        }
+        if (blocksUsed % CLOCK_CHECK_INTERVAL == 0 && blocksUsed > 0 && clock.getAsLong() >= deadline) {
+            exhausted = true;
+            return false;
+        }
+        blocksUsed++;
+        return true;
+    }
+
+    /**
+     * Whether another write still fits this tick, without claiming it. For loops that only find out
+     * per item whether it writes anything: they check here first and {@link #tryConsume()} the items
+     * that do, so items that turn out to be no-ops cost time but not writes.
+     */
+    public boolean hasRemaining() {
+        if (exhausted) return false;
+        if (blocksUsed >= maxBlocks || (++checks % CLOCK_CHECK_INTERVAL == 0 && clock.getAsLong() >= deadline)) {
+            exhausted = true;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Claims a batch of work worth {@code blocks} writes at once, for coarse steps such as copying a
+     * whole chunk section. The clock is read on every call, since each step is already expensive.
+     */
+    public boolean tryConsume(int blocks) {
+        if (exhausted) return false;
+        if (blocksUsed >= maxBlocks || (blocksUsed > 0 && clock.getAsLong() >= deadline)) {
+            exhausted = true;
+            return false;
+        }
+        blocksUsed += blocks;
+        return true;
+    }
+
+    public int getBlocksUsed() {
+        return blocksUsed;
+    }
+
+    public boolean isExhausted() {
+        return exhausted;
+    }
+}
@@ -0,0 +1,77 @@
+package com.labscraft.world;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Progress, rate and ETA of a build job, fed with the job's voxel cursor as it advances.
+ * Rates are measured from the moment stamping started, so a resumed job reports the speed of
+ * this run rather than averaging in time spent before the restart.
+ */
+public class BuildProgress {
+    private final LongSupplier clock;
+
+    private long startNanos = -1;
+    private int startCursor;
+    private int cursor;
+    private int volume;
+    private long blocks;
+
+    public BuildProgress() {
+        this(System::nanoTime);
+    }
+
+    BuildProgress(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /** Starts the clock at the cursor stamping begins from. */
+    public void start(int cursor, int volume) {
+        this.startNanos = clock.getAsLong();
+        this.startCursor = cursor;
+        this.cursor = cursor;
+        this.volume = volume;
+    }
+
+    /** Records that the cursor reached {@code cursor} after stamping {@code stamped} more blocks. */
+    public void advance(int cursor, long stamped) {
+        this.cursor = cursor;
+        this.blocks += stamped;
+    }
+
+    public boolean isStarted() {
+        return startNanos >= 0;
+    }
+
+    /** Share of the blueprint box covered, from 0 to 1. */
+    public double getFraction() {
+        return volume == 0 ? 0.0 : (double) cursor / volume;
+    }
+
+    public long getBlocks() {
+        return blocks;
+    }
+
+    public double getBlocksPerSecond() {
+        double seconds = elapsedNanos() / 1e9;
+        return seconds <= 0 ? 0.0 : blocks / seconds;
+    }
+
+    /** Seconds left at the current rate, or -1 while there is no rate to go by. */
+    public long getEtaSeconds() {
+        long elapsed = elapsedNanos();
+        int advanced = cursor - startCursor;
+        if (elapsed <= 0 || advanced <= 0) return -1;
+        return (long) Math.ceil((double) (volume - cursor) * elapsed / advanced / 1e9);
+    }
+
+    /** Percentage, rate and ETA as shown by /labscraft build status. */
+    public String summary() {
+        long eta = getEtaSeconds();
+        return String.format("%.1f%% (%,d blocks/s, ETA %s)", getFraction() * 100,
+                Math.round(getBlocksPerSecond()), eta < 0 ? "unknown" : eta + "s");
+    }
+
+    private long elapsedNanos() {
+        return isStarted() ? clock.getAsLong() - startNanos : 0;
+    }
+}
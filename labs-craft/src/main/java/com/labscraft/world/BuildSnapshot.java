@@ -0,0 +1,330 @@
+package com.labscraft.world;
+
+import com.labscraft.LabsCraft;
+import com.mojang.serialization.Codec;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.NbtOps;
+import net.minecraft.nbt.NbtSizeTracker;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.WorldSavePath;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.PalettedContainer;
+import net.minecraft.world.chunk.WorldChunk;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongPredicate;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Copy of the blocks a build is about to overwrite, so {@code /labscraft undo} can put them back.
+ * Every chunk section overlapping the build box is stored as its paletted container, the same
+ * compact form chunks are saved in, and streamed through gzip to a file in the world save rather
+ * than held on the heap. Each dimension keeps one snapshot: the one its latest build took. Chunks
+ * the build left to {@link PendingCampusApplier} are captured when they are stamped, one side file
+ * per chunk next to the snapshot, in the same layout.
+ *
+ * File layout (gzipped): magic, version, origin, box (size x, min y, size y, size z), section
+ * count, then one NBT compound per section with its coordinates and block states. Block entity
+ * contents are not captured.
+ */
+public final class BuildSnapshot {
+    private static final int MAGIC = 0x4C435553; // "LCUS"
+    private static final int VERSION = 1;
+    // Copying a section is far cheaper than writing its 4096 blocks one by one
+    private static final int SECTION_COST = 64;
+
+    private static final Codec<PalettedContainer<BlockState>> BLOCK_STATES_CODEC =
+            PalettedContainer.createPalettedContainerCodec(Block.STATE_IDS, BlockState.CODEC,
+                    PalettedContainer.PaletteProvider.BLOCK_STATE, Blocks.AIR.getDefaultState());
+
+    private BuildSnapshot() {
+    }
+
+    public static Path file(ServerWorld world) {
+        Identifier dimension = world.getRegistryKey().getValue();
+        return directory(world.getServer())
+                .resolve(dimension.getNamespace() + "_" + dimension.getPath().replace('/', '_') + ".snapshot");
+    }
+
+    private static Path directory(MinecraftServer server) {
+        return server.getSavePath(WorldSavePath.ROOT).resolve("labscraft").resolve("undo");
+    }
+
+    private static Path chunkDirectory(ServerWorld world) {
+        Path file = file(world);
+        return file.resolveSibling(file.getFileName().toString().replace(".snapshot", ".chunks"));
+    }
+
+    /** Side files of the chunks captured after the snapshot, in no particular order. */
+    static List<Path> chunkFiles(ServerWorld world) throws IOException {
+        Path chunks = chunkDirectory(world);
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(chunks)) return files;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(chunks, "*.snapshot")) {
+            stream.forEach(files::add);
+        }
+        return files;
+    }
+
+    /** Deletes the dimension's snapshot along with the chunks captured for it since. */
+    static void delete(ServerWorld world) throws IOException {
+        Files.deleteIfExists(file(world));
+        Path chunks = chunkDirectory(world);
+        if (!Files.isDirectory(chunks)) return;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(chunks)) {
+            for (Path file : stream) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(chunks);
+    }
+
+    /**
+     * Adds a chunk the build at {@code origin} deferred to that build's snapshot, just before the
+     * chunk is stamped, so undo puts it back too. Returns false, capturing nothing, if the
+     * dimension's snapshot is of another build or there is none: then undo never reaches the chunk.
+     */
+    static boolean captureChunk(ServerWorld world, BlockPos origin, long chunk) throws IOException {
+        if (!exists(world)) return false;
+        TileOrder order;
+        try (Reader reader = new Reader(file(world))) {
+            if (!reader.getOrigin().equals(origin)) return false;
+            order = reader.getOrder();
+        }
+
+        Path target = chunkDirectory(world)
+                .resolve(ChunkPos.getPackedX(chunk) + "_" + ChunkPos.getPackedZ(chunk) + ".snapshot");
+        try (Capture capture = new Capture(world, origin, order, sections(world, origin, order, key -> key == chunk),
+                target)) {
+            capture.writeAll();
+            capture.commit();
+        }
+        return true;
+    }
+
+    /** Deletes the partial captures a crash left behind. Call while no capture is running. */
+    public static void deleteLeftovers(MinecraftServer server) {
+        Path directory = directory(server);
+        if (!Files.isDirectory(directory)) return;
+        // Snapshots sit in the directory itself, chunk side files one level down
+        try (Stream<Path> leftovers = Files.find(directory, 2,
+                (path, attributes) -> attributes.isRegularFile() && path.getFileName().toString().endsWith(".tmp"))) {
+            for (Path leftover : (Iterable<Path>) leftovers::iterator) {
+                Files.deleteIfExists(leftover);
+                LabsCraft.LOGGER.info("Deleted partial undo snapshot {}", directory.relativize(leftover));
+            }
+        } catch (IOException | UncheckedIOException e) {
+            LabsCraft.LOGGER.warn("Could not clean up partial undo snapshots in {}", directory, e);
+        }
+    }
+
+    public static boolean exists(ServerWorld world) {
+        return Files.isRegularFile(file(world));
+    }
+
+    /**
+     * Sections overlapping the box in the chunks {@code include} accepts, chunk by chunk and bottom
+     * to top within a chunk.
+     */
+    static List<ChunkSectionPos> sections(ServerWorld world, BlockPos origin, TileOrder order, LongPredicate include) {
+        int minY = minY(world, origin, order);
+        int maxY = maxY(world, origin, order);
+        List<ChunkSectionPos> sections = new ArrayList<>();
+        for (int cz = origin.getZ() >> 4; cz <= (origin.getZ() + order.getSizeZ() - 1) >> 4; cz++) {
+            for (int cx = origin.getX() >> 4; cx <= (origin.getX() + order.getSizeX() - 1) >> 4; cx++) {
+                if (!include.test(ChunkPos.toLong(cx, cz))) continue;
+                for (int sy = minY >> 4; sy <= maxY >> 4; sy++) {
+                    sections.add(ChunkSectionPos.from(cx, sy, cz));
+                }
+            }
+        }
+        return sections;
+    }
+
+    /** Sections one chunk of the box contributes, as {@link #sections} lists them. */
+    static int sectionsPerChunk(ServerWorld world, BlockPos origin, TileOrder order) {
+        return (maxY(world, origin, order) >> 4) - (minY(world, origin, order) >> 4) + 1;
+    }
+
+    private static int minY(ServerWorld world, BlockPos origin, TileOrder order) {
+        return Math.max(origin.getY() + order.getMinY(), world.getBottomY());
+    }
+
+    private static int maxY(ServerWorld world, BlockPos origin, TileOrder order) {
+        return Math.min(origin.getY() + order.getMinY() + order.getSizeY() - 1, world.getTopYInclusive());
+    }
+
+    /**
+     * Writes a snapshot a few sections per tick into a temp file. The dimension's previous snapshot
+     * is deleted first, since from then on it no longer matches the latest build. {@link #commit}
+     * moves the new one into place; {@link #close} without a commit throws the partial copy away.
+     */
+    static final class Capture implements Closeable {
+        private final ServerWorld world;
+        private final List<ChunkSectionPos> sections;
+        private final Path target;
+        private final Path temp;
+        private final DataOutputStream out;
+        private int next;
+        private boolean committed;
+
+        /** Captures the build box, leaving out chunks {@code include} rejects. */
+        static Capture ofBuild(ServerWorld world, BlockPos origin, TileOrder order, LongPredicate include)
+                throws IOException {
+            delete(world);
+            return new Capture(world, origin, order, sections(world, origin, order, include), file(world));
+        }
+
+        private Capture(ServerWorld world, BlockPos origin, TileOrder order, List<ChunkSectionPos> sections,
+                        Path target) throws IOException {
+            this.world = world;
+            this.sections = sections;
+            this.target = target;
+            Files.createDirectories(target.getParent());
+            // One name per file, so a capture cut short by a crash is simply overwritten by the next
+            this.temp = target.resolveSibling(target.getFileName() + ".tmp");
+            this.out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temp))));
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(origin.getX());
+            out.writeInt(origin.getY());
+            out.writeInt(origin.getZ());
+            out.writeInt(order.getSizeX());
+            out.writeInt(order.getMinY());
+            out.writeInt(order.getSizeY());
+            out.writeInt(order.getSizeZ());
+            out.writeInt(sections.size());
+        }
+
+        /** Copies sections until the budget runs out. Returns true once every section is written. */
+        boolean step(BuildBudget budget) throws IOException {
+            while (next < sections.size()) {
+                if (!budget.tryConsume(SECTION_COST)) return false;
+                write(sections.get(next++));
+            }
+            return true;
+        }
+
+        /** Copies every remaining section at once; for captures of a single chunk. */
+        void writeAll() throws IOException {
+            while (next < sections.size()) {
+                write(sections.get(next++));
+            }
+        }
+
+        private void write(ChunkSectionPos pos) throws IOException {
+            WorldChunk chunk = world.getChunk(pos.getSectionX(), pos.getSectionZ());
+            ChunkSection section = chunk.getSection(chunk.sectionCoordToIndex(pos.getSectionY()));
+
+            NbtCompound record = new NbtCompound();
+            record.putInt("X", pos.getSectionX());
+            record.putInt("Y", pos.getSectionY());
+            record.putInt("Z", pos.getSectionZ());
+            record.put("block_states", BLOCK_STATES_CODEC
+                    .encodeStart(NbtOps.INSTANCE, section.getBlockStateContainer()).getOrThrow());
+            NbtIo.write(record, out);
+        }
+
+        void commit() throws IOException {
+            out.close();
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (committed) return;
+            out.close();
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /** One section of a snapshot, as captured. */
+    record Section(ChunkSectionPos pos, PalettedContainer<BlockState> states) {}
+
+    /** Streams a snapshot back one section at a time. */
+    static final class Reader implements Closeable {
+        private final DataInputStream in;
+        private final BlockPos origin;
+        private final TileOrder order;
+        private final int sectionCount;
+        private int read;
+
+        Reader(Path file) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))));
+            try {
+                if (in.readInt() != MAGIC) throw new IOException("Not an undo snapshot: " + file);
+                int version = in.readInt();
+                if (version != VERSION) throw new IOException("Unsupported undo snapshot version " + version);
+                this.origin = new BlockPos(in.readInt(), in.readInt(), in.readInt());
+                int sizeX = in.readInt();
+                int minY = in.readInt();
+                int sizeY = in.readInt();
+                int sizeZ = in.readInt();
+                this.order = new TileOrder(sizeX, minY, sizeY, sizeZ);
+                this.sectionCount = in.readInt();
+            } catch (IOException | RuntimeException e) {
+                in.close();
+                throw e;
+            }
+        }
+
+        /** Next section, or null once all have been read. */
+        @Nullable
+        Section next() throws IOException {
+            if (read >= sectionCount) return null;
+            NbtCompound record = NbtIo.readCompound(in, NbtSizeTracker.ofUnlimitedBytes());
+            PalettedContainer<BlockState> states = BLOCK_STATES_CODEC
+                    .parse(NbtOps.INSTANCE, record.get("block_states"))
+                    .getOrThrow(message -> new IOException("Corrupt undo snapshot section: " + message));
+            read++;
+            return new Section(ChunkSectionPos.from(record.getInt("X"), record.getInt("Y"), record.getInt("Z")), states);
+        }
+
+        BlockPos getOrigin() {
+            return origin;
+        }
+
+        TileOrder getOrder() {
+            return order;
+        }
+
+        int getSectionCount() {
+            return sectionCount;
+        }
+
+        int getSectionsRead() {
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
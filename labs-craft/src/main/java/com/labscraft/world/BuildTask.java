@@ -0,0 +1,31 @@
+package com.labscraft.world;
+
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+
+/**
+ * Work the {@link GoogleplexBuildScheduler} runs a slice per tick under its shared write budget:
+ * campus builds and the undos that revert them.
+ */
+public interface BuildTask {
+    int getId();
+
+    /** Short name for status output, e.g. "build". */
+    String getKind();
+
+    ServerWorld getWorld();
+
+    BlockPos getOrigin();
+
+    /** Name of whoever asked for the task, or "server" for automatic ones. */
+    String getRequesterName();
+
+    /** What the task is doing right now, for /labscraft build status. */
+    String describeStatus();
+
+    /** Does up to a budget's worth of work. Returns true once the task is over. */
+    boolean tick(BuildBudget budget);
+
+    /** Stops the task where it is; called instead of any further {@link #tick}. */
+    void cancel();
+}
@@ -0,0 +1,66 @@
+package com.labscraft.world;
+
+import com.labscraft.block.ModBlocks;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+
+import java.util.function.Supplier;
+
+/**
+ * Every block the Googleplex layout uses. {@link GoogleplexGenerator} paints these rather than
+ * {@link BlockState}s, so the layout runs without a bootstrapped registry; the block behind each
+ * constant is only looked up when {@link #state} is called.
+ */
+public enum CampusBlock {
+    AIR(() -> Blocks.AIR),
+    BLUE_CONCRETE(() -> Blocks.BLUE_CONCRETE),
+    CYAN_CONCRETE(() -> Blocks.CYAN_CONCRETE),
+    DARK_OAK_PLANKS(() -> Blocks.DARK_OAK_PLANKS),
+    DEEPSLATE(() -> Blocks.DEEPSLATE),
+    GLOWSTONE(() -> Blocks.GLOWSTONE),
+    GREEN_CONCRETE(() -> Blocks.GREEN_CONCRETE),
+    IRON_BARS(() -> Blocks.IRON_BARS),
+    LADDER(() -> Blocks.LADDER),
+    LANTERN(() -> Blocks.LANTERN),
+    LIGHT_BLUE_STAINED_GLASS(() -> Blocks.LIGHT_BLUE_STAINED_GLASS),
+    LIGHT_GRAY_CONCRETE(() -> Blocks.LIGHT_GRAY_CONCRETE),
+    LIGHT_GRAY_STAINED_GLASS(() -> Blocks.LIGHT_GRAY_STAINED_GLASS),
+    LIME_CONCRETE(() -> Blocks.LIME_CONCRETE),
+    MAGENTA_CONCRETE(() -> Blocks.MAGENTA_CONCRETE),
+    ORANGE_CONCRETE(() -> Blocks.ORANGE_CONCRETE),
+    POLISHED_DIORITE(() -> Blocks.POLISHED_DIORITE),
+    POLISHED_GRANITE(() -> Blocks.POLISHED_GRANITE),
+    POTTED_BAMBOO(() -> Blocks.POTTED_BAMBOO),
+    POTTED_FERN(() -> Blocks.POTTED_FERN),
+    PURPLE_CONCRETE(() -> Blocks.PURPLE_CONCRETE),
+    QUARTZ_BLOCK(() -> Blocks.QUARTZ_BLOCK),
+    QUARTZ_SLAB(() -> Blocks.QUARTZ_SLAB),
+    RED_CONCRETE(() -> Blocks.RED_CONCRETE),
+    SEA_LANTERN(() -> Blocks.SEA_LANTERN),
+    SMOOTH_QUARTZ(() -> Blocks.SMOOTH_QUARTZ),
+    SMOOTH_STONE_SLAB(() -> Blocks.SMOOTH_STONE_SLAB),
+    SPRUCE_FENCE(() -> Blocks.SPRUCE_FENCE),
+    SPRUCE_PLANKS(() -> Blocks.SPRUCE_PLANKS),
+    SPRUCE_PRESSURE_PLATE(() -> Blocks.SPRUCE_PRESSURE_PLATE),
+    SPRUCE_STAIRS(() -> Blocks.SPRUCE_STAIRS),
+    STONE(() -> Blocks.STONE),
+    WHITE_CONCRETE(() -> Blocks.WHITE_CONCRETE),
+    WHITE_WOOL(() -> Blocks.WHITE_WOOL),
+    YELLOW_CONCRETE(() -> Blocks.YELLOW_CONCRETE),
+    DEEPSLATE_TPU_ORE(() -> ModBlocks.DEEPSLATE_TPU_ORE),
+    FLOW_CONSOLE(() -> ModBlocks.FLOW_CONSOLE),
+    FLOW_CRAFTING_TABLE(() -> ModBlocks.FLOW_CRAFTING_TABLE),
+    NANO_BANANA_CONSOLE(() -> ModBlocks.NANO_BANANA_CONSOLE),
+    TPU_ORE(() -> ModBlocks.TPU_ORE);
+
+    private final Supplier<Block> block;
+
+    CampusBlock(Supplier<Block> block) {
+        this.block = block;
+    }
+
+    public BlockState state() {
+        return block.get().getDefaultState();
+    }
+}
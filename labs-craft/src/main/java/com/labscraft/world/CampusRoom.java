@@ -0,0 +1,64 @@
+package com.labscraft.world;
+
+/**
+ * Named rooms of the campus layout, as column rectangles relative to the campus corner
+ * ({@code minX <= x < maxX}, {@code minZ <= z < maxZ}). The generator builds each room inside its
+ * rectangle, and {@link CampusRoomIndex} uses the same rectangles to tell which room a position is in.
+ */
+public enum CampusRoom {
+    LOBBY("lobby", 70, 0, 130, 30),
+    TPU_MINE("tpu_mine", 75, 75, 125, 125),
+    FLOW_LAB("flow_lab", 10, 35, 50, 80),
+    GENIE_LAB("genie_lab", 150, 35, 190, 80),
+    DOPPL_LAB("doppl_lab", 10, 85, 50, 130),
+    NOTEBOOK_LM_LAB("notebook_lm_lab", 150, 85, 190, 130),
+    OPAL_LAB("opal_lab", 10, 135, 50, 180),
+    MIXBOARD_LAB("mixboard_lab", 150, 135, 190, 180),
+    CAFETERIA("cafeteria", 55, 170, 145, 195);
+
+    /** What the rest of the campus floor is reported as. */
+    public static final String HALLWAY = "hallway";
+
+    private final String id;
+    private final int minX;
+    private final int minZ;
+    private final int maxX;
+    private final int maxZ;
+
+    CampusRoom(String id, int minX, int minZ, int maxX, int maxZ) {
+        this.id = id;
+        this.minX = minX;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxZ = maxZ;
+    }
+
+    /** Stable name, used in saved room registries and in the agent's world state. */
+    public String getId() {
+        return id;
+    }
+
+    public int getMinX() {
+        return minX;
+    }
+
+    public int getMinZ() {
+        return minZ;
+    }
+
+    public int getMaxX() {
+        return maxX;
+    }
+
+    public int getMaxZ() {
+        return maxZ;
+    }
+
+    public int getWidth() {
+        return maxX - minX;
+    }
+
+    public int getDepth() {
+        return maxZ - minZ;
+    }
+}
@@ -0,0 +1,118 @@
+package com.labscraft.world;
+
+import net.minecraft.util.math.BlockPos;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Which room of one built campus a position is in, answered from a packed grid with one byte per
+ * campus column, so the lookup costs the same however many rooms there are. Rooms are kept by id
+ * rather than as {@link CampusRoom}s, so a registry saved with an older layout still describes the
+ * campus that was actually built.
+ */
+public final class CampusRoomIndex {
+    // Grid cell value for a column that belongs to no room
+    private static final byte NONE = 0;
+
+    /** A room's column rectangle relative to the campus corner, max-exclusive. */
+    public record Room(String id, int minX, int minZ, int maxX, int maxZ) {
+    }
+
+    private final BlockPos origin;
+    private final int sizeX;
+    private final int sizeZ;
+    private final int minY;
+    private final int sizeY;
+    private final List<Room> rooms;
+    // Index into rooms + 1 per column, z-major
+    private final byte[] grid;
+
+    public CampusRoomIndex(BlockPos origin, int sizeX, int sizeZ, int minY, int sizeY, List<Room> rooms) {
+        if (rooms.size() >= 255) {
+            throw new IllegalArgumentException("Too many rooms for a byte grid: " + rooms.size());
+        }
+        this.origin = origin;
+        this.sizeX = sizeX;
+        this.sizeZ = sizeZ;
+        this.minY = minY;
+        this.sizeY = sizeY;
+        this.rooms = List.copyOf(rooms);
+        this.grid = new byte[sizeX * sizeZ];
+
+        for (int i = 0; i < this.rooms.size(); i++) {
+            Room room = this.rooms.get(i);
+            for (int z = Math.max(0, room.minZ()); z < Math.min(sizeZ, room.maxZ()); z++) {
+                for (int x = Math.max(0, room.minX()); x < Math.min(sizeX, room.maxX()); x++) {
+                    grid[z * sizeX + x] = (byte) (i + 1);
+                }
+            }
+        }
+    }
+
+    /** Rooms of a campus built at {@code origin} with the current layout. */
+    public static CampusRoomIndex forLayout(BlockPos origin) {
+        TileOrder order = GoogleplexGenerator.blueprintOrder();
+        CampusRoom[] layout = CampusRoom.values();
+        Room[] rooms = new Room[layout.length];
+        for (int i = 0; i < layout.length; i++) {
+            CampusRoom room = layout[i];
+            rooms[i] = new Room(room.getId(), room.getMinX(), room.getMinZ(), room.getMaxX(), room.getMaxZ());
+        }
+        return new CampusRoomIndex(origin, order.getSizeX(), order.getSizeZ(), order.getMinY(), order.getSizeY(),
+            List.of(rooms));
+    }
+
+    /** True if the position is anywhere in the campus box. */
+    public boolean contains(int x, int y, int z) {
+        int rx = x - origin.getX();
+        int ry = y - origin.getY() - minY;
+        int rz = z - origin.getZ();
+        return rx >= 0 && rx < sizeX && rz >= 0 && rz < sizeZ && ry >= 0 && ry < sizeY;
+    }
+
+    /**
+     * Id of the room holding the world position, {@link CampusRoom#HALLWAY} for the rest of the
+     * campus, or null outside the campus.
+     */
+    @Nullable
+    public String roomAt(int x, int y, int z) {
+        if (!contains(x, y, z)) return null;
+        int cell = grid[(z - origin.getZ()) * sizeX + (x - origin.getX())] & 0xFF;
+        return cell == NONE ? CampusRoom.HALLWAY : rooms.get(cell - 1).id();
+    }
+
+    public BlockPos getOrigin() {
+        return origin;
+    }
+
+    public int getSizeX() {
+        return sizeX;
+    }
+
+    public int getSizeZ() {
+        return sizeZ;
+    }
+
+    /** Lowest campus layer, relative to the origin. */
+    public int getMinY() {
+        return minY;
+    }
+
+    public int getSizeY() {
+        return sizeY;
+    }
+
+    public List<Room> getRooms() {
+        return rooms;
+    }
+
+    /** The room with this id, or null if the campus was built without one. */
+    @Nullable
+    public Room getRoom(String id) {
+        for (Room room : rooms) {
+            if (room.id().equals(id)) return room;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,89 @@
+package com.labscraft.world;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+/**
+ * Sparse set of block positions with a value each, bucketed by chunk. A box query only visits the
+ * chunks the box overlaps and the entries in them, so its cost follows how many entries are near,
+ * not how many blocks the box holds. Positions and chunks are packed the way BlockPos and ChunkPos
+ * pack them.
+ */
+final class ChunkPositionIndex<T> {
+    /** Receives the entries a query finds. */
+    interface Visitor<T> {
+        void visit(int x, int y, int z, T value);
+    }
+
+    private final Long2ObjectMap<Long2ObjectMap<T>> chunks = new Long2ObjectOpenHashMap<>();
+    private int size;
+
+    void put(int x, int y, int z, T value) {
+        Long2ObjectMap<T> chunk = chunks.computeIfAbsent(chunkKey(x >> 4, z >> 4), key -> new Long2ObjectOpenHashMap<>());
+        if (chunk.put(pack(x, y, z), value) == null) size++;
+    }
+
+    void remove(int x, int y, int z) {
+        long key = chunkKey(x >> 4, z >> 4);
+        Long2ObjectMap<T> chunk = chunks.get(key);
+        if (chunk == null || chunk.remove(pack(x, y, z)) == null) return;
+        size--;
+        if (chunk.isEmpty()) chunks.remove(key);
+    }
+
+    /** Forgets every entry in a chunk, e.g. before it is re-indexed or once it unloads. */
+    void clearChunk(int chunkX, int chunkZ) {
+        Long2ObjectMap<T> chunk = chunks.remove(chunkKey(chunkX, chunkZ));
+        if (chunk != null) size -= chunk.size();
+    }
+
+    /** Visits every entry with {@code minX <= x <= maxX} and likewise for y and z. */
+    void forEachWithin(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, Visitor<T> visitor) {
+        for (int chunkZ = minZ >> 4; chunkZ <= maxZ >> 4; chunkZ++) {
+            for (int chunkX = minX >> 4; chunkX <= maxX >> 4; chunkX++) {
+                Long2ObjectMap<T> chunk = chunks.get(chunkKey(chunkX, chunkZ));
+                if (chunk == null) continue;
+
+                for (Long2ObjectMap.Entry<T> entry : chunk.long2ObjectEntrySet()) {
+                    long packed = entry.getLongKey();
+                    int x = unpackX(packed);
+                    int y = unpackY(packed);
+                    int z = unpackZ(packed);
+                    if (x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ) {
+                        visitor.visit(x, y, z, entry.getValue());
+                    }
+                }
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    int chunkCount() {
+        return chunks.size();
+    }
+
+    // Same layout as ChunkPos.toLong
+    static long chunkKey(int chunkX, int chunkZ) {
+        return (chunkX & 0xFFFFFFFFL) | (chunkZ & 0xFFFFFFFFL) << 32;
+    }
+
+    // Same layout as BlockPos.asLong: 26 bits of x, 26 of z, 12 of y
+    private static long pack(int x, int y, int z) {
+        return (x & 0x3FFFFFFL) << 38 | (z & 0x3FFFFFFL) << 12 | (y & 0xFFFL);
+    }
+
+    private static int unpackX(long packed) {
+        return (int) (packed >> 38);
+    }
+
+    private static int unpackY(long packed) {
+        return (int) (packed << 52 >> 52);
+    }
+
+    private static int unpackZ(long packed) {
+        return (int) (packed << 26 >> 38);
+    }
+}
@@ -0,0 +1,82 @@
+package com.labscraft.world;
+
+import net.minecraft.server.world.ChunkTicketType;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+/**
+ * Keeps the chunks under a build loaded. Tickets for every chunk go in at once, so the chunk
+ * system loads (or generates) them concurrently on its worker threads instead of the build
+ * pulling them in one at a time on the server thread as it reaches them.
+ */
+public class ChunkPreloader {
+    private static final ChunkTicketType<ChunkPos> BUILD_TICKET =
+            ChunkTicketType.create("labscraft_build", Comparator.comparingLong(ChunkPos::toLong));
+    // Ticket level 33 - radius; 0 keeps each chunk at full status without ticking its neighbors
+    private static final int RADIUS = 0;
+
+    private final ServerWorld world;
+    private final List<ChunkPos> chunks = new ArrayList<>();
+    private boolean held;
+    // Chunks known to be loaded, counted from the front of the list
+    private int loaded;
+
+    /** Covers the chunks holding blocks {@code minX..maxX}, {@code minZ..maxZ}, inclusive. */
+    public ChunkPreloader(ServerWorld world, int minX, int minZ, int maxX, int maxZ) {
+        this(world, minX, minZ, maxX, maxZ, chunk -> true);
+    }
+
+    /** Like the box constructor, but only covers the chunks {@code include} accepts, by chunk key. */
+    public ChunkPreloader(ServerWorld world, int minX, int minZ, int maxX, int maxZ, LongPredicate include) {
+        this.world = world;
+        for (int cz = minZ >> 4; cz <= maxZ >> 4; cz++) {
+            for (int cx = minX >> 4; cx <= maxX >> 4; cx++) {
+                if (include.test(ChunkPos.toLong(cx, cz))) {
+                    chunks.add(new ChunkPos(cx, cz));
+                }
+            }
+        }
+    }
+
+    /** Adds the tickets; does nothing if they are already held. */
+    public void acquire() {
+        if (held) return;
+        for (ChunkPos pos : chunks) {
+            world.getChunkManager().addTicket(BUILD_TICKET, pos, RADIUS, pos);
+        }
+        held = true;
+    }
+
+    /** True once every chunk is loaded. Cheap enough to poll every tick. */
+    public boolean isLoaded() {
+        while (loaded < chunks.size()) {
+            ChunkPos pos = chunks.get(loaded);
+            if (!world.isChunkLoaded(pos.x, pos.z)) return false;
+            loaded++;
+        }
+        return true;
+    }
+
+    /** Removes the tickets, letting the chunks unload normally. */
+    public void release() {
+        if (!held) return;
+        for (ChunkPos pos : chunks) {
+            world.getChunkManager().removeTicket(BUILD_TICKET, pos, RADIUS, pos);
+        }
+        held = false;
+    }
+
+    public int getChunkCount() {
+        return chunks.size();
+    }
+
+    /** Lower bound on loaded chunks, as of the last {@link #isLoaded} call. */
+    public int getLoadedCount() {
+        return loaded;
+    }
+}
@@ -0,0 +1,84 @@
+package com.labscraft.world;
+
+import it.unimi.dsi.fastutil.objects.Object2IntLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMaps;
+
+/**
+ * Sink that only counts: writes per block and the box they cover. Lets generators be measured and
+ * checked without a world or a buffer behind them.
+ */
+public class CountingBlockSink<T> implements BlockSink<T> {
+    private final Object2IntLinkedOpenHashMap<T> counts = new Object2IntLinkedOpenHashMap<>();
+    private long writes;
+    private int minX = Integer.MAX_VALUE;
+    private int minY = Integer.MAX_VALUE;
+    private int minZ = Integer.MAX_VALUE;
+    private int maxX = Integer.MIN_VALUE;
+    private int maxY = Integer.MIN_VALUE;
+    private int maxZ = Integer.MIN_VALUE;
+
+    @Override
+    public void setBlock(int x, int y, int z, T block) {
+        counts.addTo(block, 1);
+        writes++;
+        include(x, y, z);
+    }
+
+    @Override
+    public void fillRow(int fromX, int toX, int y, int z, T block) {
+        if (fromX >= toX) return;
+        counts.addTo(block, toX - fromX);
+        writes += toX - fromX;
+        include(fromX, y, z);
+        include(toX - 1, y, z);
+    }
+
+    private void include(int x, int y, int z) {
+        minX = Math.min(minX, x);
+        minY = Math.min(minY, y);
+        minZ = Math.min(minZ, z);
+        maxX = Math.max(maxX, x);
+        maxY = Math.max(maxY, y);
+        maxZ = Math.max(maxZ, z);
+    }
+
+    /** Every write received, including repeated writes to the same position. */
+    public long getWrites() {
+        return writes;
+    }
+
+    public int getCount(T block) {
+        return counts.getInt(block);
+    }
+
+    /** Writes per block, in the order each block was first written. */
+    public Object2IntMap<T> getCounts() {
+        return Object2IntMaps.unmodifiable(counts);
+    }
+
+    public int getMinX() {
+        return minX;
+    }
+
+    public int getMinY() {
+        return minY;
+    }
+
+    public int getMinZ() {
+        return minZ;
+    }
+
+    /** Inclusive, like the other bounds; meaningless until something was written. */
+    public int getMaxX() {
+        return maxX;
+    }
+
+    public int getMaxY() {
+        return maxY;
+    }
+
+    public int getMaxZ() {
+        return maxZ;
+    }
+}
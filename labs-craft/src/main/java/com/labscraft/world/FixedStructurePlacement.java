@@ -0,0 +1,48 @@
+package com.labscraft.world;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.MapCodec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.Vec3i;
+import net.minecraft.world.gen.chunk.placement.StructurePlacement;
+import net.minecraft.world.gen.chunk.placement.StructurePlacementCalculator;
+import net.minecraft.world.gen.chunk.placement.StructurePlacementType;
+
+import java.util.Optional;
+
+/**
+ * Places a structure exactly once, in a fixed start chunk. Used for the Googleplex, which
+ * belongs at a known spot rather than scattered across the world.
+ */
+public class FixedStructurePlacement extends StructurePlacement {
+    public static final MapCodec<FixedStructurePlacement> CODEC = RecordCodecBuilder.mapCodec(instance ->
+        buildCodec(instance).and(instance.group(
+            Codec.INT.fieldOf("chunk_x").forGetter(placement -> placement.chunkPos.x),
+            Codec.INT.fieldOf("chunk_z").forGetter(placement -> placement.chunkPos.z)
+        )).apply(instance, FixedStructurePlacement::new)
+    );
+
+    private final ChunkPos chunkPos;
+
+    public FixedStructurePlacement(Vec3i locateOffset, FrequencyReductionMethod frequencyReductionMethod,
+                                   float frequency, int salt, Optional<ExclusionZone> exclusionZone,
+                                   int chunkX, int chunkZ) {
+        super(locateOffset, frequencyReductionMethod, frequency, salt, exclusionZone);
+        this.chunkPos = new ChunkPos(chunkX, chunkZ);
+    }
+
+    public ChunkPos getChunkPos() {
+        return chunkPos;
+    }
+
+    @Override
+    protected boolean isStartChunk(StructurePlacementCalculator calculator, int chunkX, int chunkZ) {
+        return chunkX == chunkPos.x && chunkZ == chunkPos.z;
+    }
+
+    @Override
+    public StructurePlacementType<?> getType() {
+        return ModStructures.FIXED_PLACEMENT;
+    }
+}
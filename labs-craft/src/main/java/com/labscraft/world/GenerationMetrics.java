@@ -0,0 +1,83 @@
+package com.labscraft.world;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Time, writes and chunks touched per {@link GoogleplexGenerator.Phase}, summed over every tile a
+ * generation ran. Tiles are composed on several threads at once, so recording is synchronized.
+ * Chunks are counted relative to the campus corner, which matches world chunks when the origin is
+ * chunk-aligned, as it is for the worldgen structure.
+ */
+public class GenerationMetrics {
+    private static final GoogleplexGenerator.Phase[] PHASES = GoogleplexGenerator.Phase.values();
+
+    private final long[] nanos = new long[PHASES.length];
+    private final long[] blocks = new long[PHASES.length];
+    private final BitSet[] chunks = new BitSet[PHASES.length];
+    private int tiles;
+
+    public GenerationMetrics() {
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = new BitSet();
+        }
+    }
+
+    /** Adds one phase run; {@code touchedChunks} holds campus-relative chunk indices. */
+    public synchronized void record(GoogleplexGenerator.Phase phase, long blocksWritten, long elapsedNanos,
+                                    BitSet touchedChunks) {
+        int i = phase.ordinal();
+        nanos[i] += elapsedNanos;
+        blocks[i] += blocksWritten;
+        chunks[i].or(touchedChunks);
+    }
+
+    /** Counts a finished generate call, i.e. one tile when composing tile by tile. */
+    public synchronized void recordTile() {
+        tiles++;
+    }
+
+    public synchronized long getNanos(GoogleplexGenerator.Phase phase) {
+        return nanos[phase.ordinal()];
+    }
+
+    public synchronized long getBlocks(GoogleplexGenerator.Phase phase) {
+        return blocks[phase.ordinal()];
+    }
+
+    public synchronized int getChunks(GoogleplexGenerator.Phase phase) {
+        return chunks[phase.ordinal()].cardinality();
+    }
+
+    public synchronized int getTiles() {
+        return tiles;
+    }
+
+    public synchronized long getTotalNanos() {
+        long total = 0;
+        for (long n : nanos) total += n;
+        return total;
+    }
+
+    public synchronized long getTotalBlocks() {
+        long total = 0;
+        for (long b : blocks) total += b;
+        return total;
+    }
+
+    /** One line per phase, slowest first, for logs and chat. */
+    public synchronized List<String> describe() {
+        List<GoogleplexGenerator.Phase> order = new ArrayList<>(List.of(PHASES));
+        order.sort((a, b) -> Long.compare(nanos[b.ordinal()], nanos[a.ordinal()]));
+
+        List<String> lines = new ArrayList<>(order.size());
+        for (GoogleplexGenerator.Phase phase : order) {
+            int i = phase.ordinal();
+            lines.add(String.format(Locale.ROOT, "%s: %.2f ms, %,d blocks, %d chunks",
+                    phase.name().toLowerCase(Locale.ROOT), nanos[i] / 1e6, blocks[i], chunks[i].cardinality()));
+        }
+        return lines;
+    }
+}
@@ -1,14 +1,14 @@
 package com.labscraft.world;
 
 import com.labscraft.LabsCraft;
-import com.labscraft.entity.ModEntities;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
-import net.minecraft.entity.SpawnReason;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 
+import java.util.Optional;
+
 public class GoogleplexAutoGenerator {
 
     public static void register() {
@@ -22,6 +22,26 @@ public class GoogleplexAutoGenerator {
         GoogleplexState state = GoogleplexState.get(overworld);
         if (state.isGenerated()) {
             LabsCraft.LOGGER.info("Googleplex already generated, skipping.");
+            // Campuses finished before rooms were recorded; only a worldgen campus has a known corner
+            if (state.getCampuses().isEmpty()) {
+                GoogleplexStructure.findCampusOrigin(overworld)
+                    .ifPresent(origin -> state.addCampus(CampusRoomIndex.forLayout(origin)));
+            }
+            return;
+        }
+        if (state.hasPendingBuild()) {
+            // GoogleplexBuildScheduler resumes it from the saved cursor
+            return;
+        }
+
+        // Worlds that generate the campus with their chunks only need Josh and the spawn point
+        Optional<BlockPos> generatedOrigin = GoogleplexStructure.findCampusOrigin(overworld);
+        if (generatedOrigin.isPresent()) {
+            GoogleplexGenerator generator = new GoogleplexGenerator(generatedOrigin.get(), overworld.getSeed());
+            // Loading the lobby chunk generates it, and the lobby with it
+            overworld.getChunk(generator.getJoshSpawnPos());
+            GoogleplexBuildJob.finishCampus(overworld, generator, true);
+            LabsCraft.LOGGER.info("Googleplex generated with the world at origin {}", generatedOrigin.get());
             return;
         }
 
@@ -33,30 +53,9 @@ public class GoogleplexAutoGenerator {
         BlockPos spawnPos = overworld.getSpawnPos();
         BlockPos origin = new BlockPos(spawnPos.getX() - 100, spawnPos.getY(), spawnPos.getZ() - 5);
 
-        GoogleplexGenerator generator = new GoogleplexGenerator(overworld, origin);
-        generator.generate();
-
-        // Spawn Josh Woodward NPC in the lobby
-        BlockPos joshPos = generator.getJoshSpawnPos();
-        spawnJoshWoodward(overworld, joshPos);
-
-        // Set world spawn inside the lobby entrance, facing south (into the building)
-        BlockPos lobbySpawn = generator.getLobbySpawnPos();
-        overworld.setSpawnPos(lobbySpawn, 180.0f);
-
-        state.setGenerated(true);
-        LabsCraft.LOGGER.info("Googleplex generated at origin {} with spawn at {}", origin, lobbySpawn);
-    }
-
-    private static void spawnJoshWoodward(ServerWorld world, BlockPos pos) {
-        var josh = ModEntities.JOSH_WOODWARD.create(world, SpawnReason.COMMAND);
-        if (josh != null) {
-            josh.refreshPositionAndAngles(
-                pos.getX() + 0.5, pos.getY(), pos.getZ() + 0.5,
-                180.0f, 0.0f
-            );
-            world.spawnEntity(josh);
-            LabsCraft.LOGGER.info("Josh Woodward spawned at {}", pos);
+        // Built over the next few seconds; the job spawns Josh and moves the world spawn into the lobby when done
+        if (GoogleplexBuildScheduler.start(overworld, origin, true, null) == null) {
+            LabsCraft.LOGGER.warn("The Googleplex build queue is full; auto-generation will retry on next start.");
         }
     }
 }
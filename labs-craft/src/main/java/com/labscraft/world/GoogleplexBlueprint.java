@@ -0,0 +1,335 @@
+package com.labscraft.world;
+
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.block.BlockState;
+import net.minecraft.command.argument.BlockArgumentParser;
+import net.minecraft.registry.Registries;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntFunction;
+import java.util.zip.CRC32;
+
+/**
+ * Immutable, precompiled form of the Googleplex layout: a block-state palette plus a run-length
+ * encoded voxel array in {@link TileOrder}. Stamping a blueprint replays no generator code, and a
+ * blueprint loaded from disk reads its runs straight out of a memory-mapped file.
+ *
+ * File layout (big-endian): magic, format version, cache key, box dimensions, write count,
+ * generator write count, palette (block state strings), run count, CRC32 of the run index and
+ * runs, the run index (first run of each tile, then the run count), then the runs themselves.
+ */
+public final class GoogleplexBlueprint {
+    private static final int MAGIC = 0x4C435042; // "LCPB"
+    static final int FORMAT_VERSION = 3;
+
+    private final String key;
+    private final TileOrder order;
+    // Cell value v > 0 stamps palette[v]; value 0 leaves the world untouched
+    private final BlockState[] palette;
+    private final IntBuffer runs;
+    // First run of each tile, plus the run count; no run crosses a tile, so a stamper starts here
+    private final int[] tileRuns;
+    private final int writeCount;
+    // Writes the generator issued before composition, kept to report overdraw
+    private final int sourceWrites;
+
+    // One tile's runs, valued against the tile's own palette until merged
+    private record CompiledTile(List<BlockState> palette, int[] runs, int writeCount, int sourceWrites) {}
+
+    private GoogleplexBlueprint(String key, TileOrder order, BlockState[] palette, IntBuffer runs, int[] tileRuns,
+                                int writeCount, int sourceWrites) {
+        this.key = key;
+        this.order = order;
+        this.palette = palette;
+        this.runs = runs;
+        this.tileRuns = tileRuns;
+        this.writeCount = writeCount;
+        this.sourceWrites = sourceWrites;
+    }
+
+    /**
+     * Composes every tile on the pool and run-length encodes it. Tiles are independent, so each one
+     * is encoded on its own worker; the calling thread only merges the tile palettes and
+     * concatenates the runs in tile order.
+     */
+    static GoogleplexBlueprint compile(String key, TileOrder order, IntFunction<VoxelBuffer<CampusBlock>> tiles,
+                                       ForkJoinPool pool) {
+        List<ForkJoinTask<CompiledTile>> tasks = new ArrayList<>(order.tileCount());
+        for (int t = 0; t < order.tileCount(); t++) {
+            int tile = t;
+            tasks.add(pool.submit(() -> compileTile(order, tile, tiles.apply(tile))));
+        }
+
+        List<BlockState> palette = new ArrayList<>();
+        palette.add(null); // value 0 means "leave untouched"
+        Reference2IntOpenHashMap<BlockState> paletteIds = new Reference2IntOpenHashMap<>();
+        paletteIds.defaultReturnValue(-1);
+        IntArrayList runs = new IntArrayList();
+        int[] tileRuns = new int[order.tileCount() + 1];
+        int writeCount = 0;
+        int sourceWrites = 0;
+
+        for (int t = 0; t < tasks.size(); t++) {
+            CompiledTile tile = tasks.get(t).join();
+            tileRuns[t] = runs.size();
+            int[] remap = new int[tile.palette().size() + 1];
+            for (int i = 0; i < tile.palette().size(); i++) {
+                BlockState state = tile.palette().get(i);
+                int id = paletteIds.getInt(state);
+                if (id < 0) {
+                    id = palette.size();
+                    palette.add(state);
+                    paletteIds.put(state, id);
+                }
+                remap[i + 1] = id;
+            }
+            if (palette.size() > RunLength.MAX_VALUE + 1) {
+                throw new IllegalStateException("Blueprint palette exceeds " + RunLength.MAX_VALUE + " states");
+            }
+
+            for (int run : tile.runs()) {
+                runs.add(RunLength.pack(remap[RunLength.value(run)], RunLength.length(run)));
+            }
+            writeCount += tile.writeCount();
+            sourceWrites += tile.sourceWrites();
+        }
+        tileRuns[order.tileCount()] = runs.size();
+
+        return new GoogleplexBlueprint(key, order, palette.toArray(new BlockState[0]),
+            IntBuffer.wrap(runs.toIntArray()), tileRuns, writeCount, sourceWrites);
+    }
+
+    private static CompiledTile compileTile(TileOrder order, int tile, VoxelBuffer<CampusBlock> voxels) {
+        if (voxels.getMinX() != order.tileMinX(tile) || voxels.getMinZ() != order.tileMinZ(tile)
+                || voxels.getMinY() != order.getMinY() || voxels.getSizeX() != order.tileWidth(tile)
+                || voxels.getSizeY() != order.getSizeY() || voxels.getSizeZ() != order.tileDepth(tile)) {
+            throw new IllegalStateException("Voxel buffer does not cover tile " + tile);
+        }
+        List<BlockState> palette = new ArrayList<>(voxels.palette().size());
+        for (CampusBlock block : voxels.palette()) {
+            palette.add(block.state());
+        }
+        return new CompiledTile(palette, RunLength.encode(voxels.cells()),
+            voxels.getCellsWritten(), voxels.getWrites());
+    }
+
+    public void save(Path file) throws IOException {
+        byte[][] paletteNames = new byte[palette.length - 1][];
+        int headerSize = 4 * 9 + 2 + key.getBytes(StandardCharsets.UTF_8).length + 4 + 8;
+        for (int i = 1; i < palette.length; i++) {
+            paletteNames[i - 1] = BlockArgumentParser.stringifyBlockState(palette[i]).getBytes(StandardCharsets.UTF_8);
+            headerSize += 2 + paletteNames[i - 1].length;
+        }
+
+        ByteBuffer indexBytes = ByteBuffer.allocate(tileRuns.length * 4);
+        indexBytes.asIntBuffer().put(tileRuns);
+        ByteBuffer runBytes = ByteBuffer.allocate(runs.limit() * 4);
+        runBytes.asIntBuffer().put(runs.duplicate().rewind());
+        CRC32 crc = new CRC32();
+        crc.update(indexBytes.duplicate());
+        crc.update(runBytes.duplicate());
+
+        ByteBuffer header = ByteBuffer.allocate(headerSize);
+        header.putInt(MAGIC);
+        header.putInt(FORMAT_VERSION);
+        putString(header, key.getBytes(StandardCharsets.UTF_8));
+        header.putInt(order.getSizeX());
+        header.putInt(order.getMinY());
+        header.putInt(order.getSizeY());
+        header.putInt(order.getSizeZ());
+        header.putInt(writeCount);
+        header.putInt(sourceWrites);
+        header.putInt(paletteNames.length);
+        for (byte[] name : paletteNames) {
+            putString(header, name);
+        }
+        header.putInt(runs.limit());
+        header.putLong(crc.getValue());
+        header.flip();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining()) channel.write(header);
+            while (indexBytes.hasRemaining()) channel.write(indexBytes);
+            while (runBytes.hasRemaining()) channel.write(runBytes);
+        }
+    }
+
+    /** Maps a saved blueprint into memory. Throws if the file is damaged or was built for another key. */
+    public static GoogleplexBlueprint load(Path file, String expectedKey) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        try {
+            if (buffer.getInt() != MAGIC) throw new IOException("Not a Googleplex blueprint: " + file);
+            int version = buffer.getInt();
+            if (version != FORMAT_VERSION) throw new IOException("Unsupported blueprint format " + version);
+            String key = getString(buffer);
+            if (!key.equals(expectedKey)) throw new IOException("Blueprint key " + key + " does not match " + expectedKey);
+
+            TileOrder order = new TileOrder(buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt());
+            int writeCount = buffer.getInt();
+            int sourceWrites = buffer.getInt();
+
+            BlockState[] palette = new BlockState[buffer.getInt() + 1];
+            for (int i = 1; i < palette.length; i++) {
+                palette[i] = BlockArgumentParser.block(Registries.BLOCK, getString(buffer), false).blockState();
+            }
+
+            int runCount = buffer.getInt();
+            long expectedCrc = buffer.getLong();
+            ByteBuffer indexBytes = buffer.slice(buffer.position(), (order.tileCount() + 1) * 4);
+            ByteBuffer runBytes = buffer.slice(buffer.position() + indexBytes.capacity(), runCount * 4);
+            CRC32 crc = new CRC32();
+            crc.update(indexBytes.duplicate());
+            crc.update(runBytes.duplicate());
+            if (crc.getValue() != expectedCrc) throw new IOException("Blueprint checksum mismatch: " + file);
+
+            int[] tileRuns = new int[order.tileCount() + 1];
+            indexBytes.asIntBuffer().get(tileRuns);
+            return new GoogleplexBlueprint(key, order, palette, runBytes.asIntBuffer(), tileRuns, writeCount,
+                sourceWrites);
+        } catch (CommandSyntaxException | RuntimeException e) {
+            throw new IOException("Corrupt blueprint " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public TileOrder getOrder() {
+        return order;
+    }
+
+    /** Number of voxels the blueprint actually writes (cells that are not left untouched). */
+    public int getWriteCount() {
+        return writeCount;
+    }
+
+    /** Writes the generator's phases issued before they were composed. */
+    public int getSourceWrites() {
+        return sourceWrites;
+    }
+
+    /** Generator writes per block actually stamped; 1.0 would mean the phases never overlap. */
+    public double getOverdrawRatio() {
+        return writeCount == 0 ? 1.0 : (double) sourceWrites / writeCount;
+    }
+
+    /** Returns a stamper positioned at the given voxel index. */
+    public Stamper stamper(int cursor) {
+        return new Stamper(cursor);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Walks the blueprint's written voxels in order, skipping untouched runs wholesale.
+     * Call {@link #next()} before reading each voxel.
+     */
+    public final class Stamper {
+        private final TileOrder.Walker walker;
+        private int runIndex;
+        private int runRemaining;
+        private int value;
+        private boolean started;
+
+        private Stamper(int cursor) {
+            walker = order.walker(Math.min(cursor, order.volume()));
+
+            // Find the run containing the cursor, starting from the first run of its tile
+            int tile = walker.index() < order.volume() ? order.tileAt(walker.index()) : order.tileCount();
+            runIndex = tileRuns[tile];
+            int covered = order.tileStart(tile);
+            while (runIndex < runs.limit() && covered <= walker.index()) {
+                int run = runs.get(runIndex++);
+                covered += RunLength.length(run);
+                value = RunLength.value(run);
+                runRemaining = covered - walker.index();
+            }
+            if (covered <= walker.index()) runRemaining = 0;
+        }
+
+        /** Moves to the next voxel to write. Returns false when the blueprint is done. */
+        public boolean next() {
+            if (started && walker.index() < order.volume()) {
+                runRemaining--;
+                walker.advance();
+            }
+            started = true;
+
+            while (walker.index() < order.volume()) {
+                if (runRemaining == 0) {
+                    int run = runs.get(runIndex++);
+                    value = RunLength.value(run);
+                    runRemaining = RunLength.length(run);
+                }
+                if (value != 0) return true;
+
+                walker.seek(walker.index() + runRemaining);
+                runRemaining = 0;
+            }
+            return false;
+        }
+
+        /**
+         * Skips the rest of the current run without visiting it, stopping at {@code limit} if the
+         * run goes on past it. The following {@link #next()} continues from there.
+         */
+        public void skipRun(int limit) {
+            int target = Math.min(walker.index() + runRemaining, Math.min(limit, order.volume()));
+            if (target <= walker.index()) return;
+
+            runRemaining -= target - walker.index();
+            walker.seek(target);
+            started = false;
+        }
+
+        /** Voxel index of the current voxel. */
+        public int index() {
+            return walker.index();
+        }
+
+        public int x() {
+            return walker.x();
+        }
+
+        public int y() {
+            return walker.y();
+        }
+
+        public int z() {
+            return walker.z();
+        }
+
+        public BlockState state() {
+            return palette[value];
+        }
+    }
+}
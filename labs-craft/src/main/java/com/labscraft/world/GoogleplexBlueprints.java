@@ -0,0 +1,167 @@
+package com.labscraft.world;
+
+import com.labscraft.LabsCraft;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.gen.GeneratorOptions;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * Compiles the Googleplex blueprint once and caches it under {@code config/labscraft/blueprints}.
+ * The file name carries a hash of the layout and format versions and the world seed, so a layout
+ * change or another world simply produces a new file and stale blueprints are never stamped. Loading and compiling happen on a
+ * dedicated fork-join pool, one task per tile, so the server thread never waits on layout.
+ */
+public final class GoogleplexBlueprints {
+    private static final Path CACHE_DIR = FabricLoader.getInstance().getConfigDir()
+        .resolve(LabsCraft.MOD_ID).resolve("blueprints");
+
+    // Leave a core for the server thread
+    private static final ForkJoinPool POOL = new ForkJoinPool(
+        Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+        pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("LabsCraft-Blueprint-" + thread.getPoolIndex());
+            return thread;
+        },
+        null, false);
+
+    @Nullable
+    private static CompletableFuture<GoogleplexBlueprint> pending;
+    private static long pendingSeed;
+    // Phases measured by each seed's compile since the server started; a blueprint loaded from the cache has none
+    private static final Map<Long, GenerationMetrics> compileMetrics = new ConcurrentHashMap<>();
+
+    private GoogleplexBlueprints() {
+    }
+
+    /**
+     * Starts preparing the blueprint as soon as the world seed is known, while the server goes on
+     * loading. Nothing waits for it here; a structure piece that needs it before it is ready waits
+     * then, on its worldgen thread.
+     */
+    public static void register() {
+        ServerLifecycleEvents.SERVER_STARTING.register(GoogleplexBlueprints::prepareForWorldgen);
+    }
+
+    private static void prepareForWorldgen(MinecraftServer server) {
+        GeneratorOptions options = server.getSaveProperties().getGeneratorOptions();
+        if (!options.shouldGenerateStructures()) return;
+
+        prepare(options.getSeed()).exceptionally(e -> {
+            LabsCraft.LOGGER.error("Failed to prepare the Googleplex blueprint before worldgen", e);
+            return null;
+        });
+    }
+
+    /**
+     * Returns the current blueprint, loading it from the cache or compiling it off-thread on first
+     * use. A failed attempt is forgotten so the next call tries again.
+     */
+    public static synchronized CompletableFuture<GoogleplexBlueprint> prepare(long seed) {
+        if (pending == null || pending.isCompletedExceptionally() || pendingSeed != seed) {
+            pending = CompletableFuture.supplyAsync(() -> loadOrCompile(seed), POOL);
+            pendingSeed = seed;
+        }
+        return pending;
+    }
+
+    /** The blueprint for a seed if it is ready now, or null if it is still being prepared or failed. */
+    @Nullable
+    public static synchronized GoogleplexBlueprint getIfReady(long seed) {
+        if (pending == null || pendingSeed != seed || !pending.isDone() || pending.isCompletedExceptionally()) {
+            return null;
+        }
+        return pending.join();
+    }
+
+    private static GoogleplexBlueprint loadOrCompile(long seed) {
+        String key = cacheKey(seed);
+        Path file = CACHE_DIR.resolve("googleplex-" + key + ".bin");
+
+        if (Files.isRegularFile(file)) {
+            try {
+                GoogleplexBlueprint loaded = GoogleplexBlueprint.load(file, key);
+                LabsCraft.LOGGER.info("Loaded Googleplex blueprint {} ({} writes)", file.getFileName(), loaded.getWriteCount());
+                return loaded;
+            } catch (IOException e) {
+                LabsCraft.LOGGER.warn("Discarding unreadable Googleplex blueprint: {}", e.getMessage());
+            }
+        }
+
+        long start = System.nanoTime();
+        TileOrder order = GoogleplexGenerator.blueprintOrder();
+        GenerationMetrics metrics = new GenerationMetrics();
+        GoogleplexBlueprint compiled = GoogleplexBlueprint.compile(key, order,
+            tile -> composeTile(seed, order, tile, metrics), POOL);
+        LabsCraft.LOGGER.info("Compiled Googleplex blueprint in {} ms ({} writes, {} tiles on {} threads)",
+            (System.nanoTime() - start) / 1_000_000, compiled.getWriteCount(), order.tileCount(), POOL.getParallelism());
+        LabsCraft.LOGGER.info("Googleplex overdraw {}: {} generator writes composed into {} blocks",
+            String.format("%.2f", compiled.getOverdrawRatio()), compiled.getSourceWrites(), compiled.getWriteCount());
+        logPhases(metrics);
+        compileMetrics.put(seed, metrics);
+
+        try {
+            Files.createDirectories(CACHE_DIR);
+            Path temp = Files.createTempFile(CACHE_DIR, "googleplex-", ".tmp");
+            compiled.save(temp);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return GoogleplexBlueprint.load(file, key);
+        } catch (IOException e) {
+            LabsCraft.LOGGER.warn("Could not cache Googleplex blueprint, using in-memory copy: {}", e.getMessage());
+            return compiled;
+        }
+    }
+
+    /**
+     * Phases measured when the seed's blueprint was compiled, or null if it hasn't been compiled
+     * since the server started, e.g. because it was loaded from the cache.
+     */
+    @Nullable
+    public static GenerationMetrics getCompileMetrics(long seed) {
+        return compileMetrics.get(seed);
+    }
+
+    private static VoxelBuffer<CampusBlock> composeTile(long seed, TileOrder order, int tile, GenerationMetrics metrics) {
+        GoogleplexGenerator generator = new GoogleplexGenerator(BlockPos.ORIGIN, seed);
+        generator.setMetrics(metrics);
+        return generator.compose(order.tileMinX(tile), order.tileMinZ(tile),
+            order.tileMinX(tile) + order.tileWidth(tile), order.tileMinZ(tile) + order.tileDepth(tile));
+    }
+
+    private static void logPhases(GenerationMetrics metrics) {
+        LabsCraft.LOGGER.info("Googleplex phases over {} tiles ({} ms of generator time, {} writes):",
+            metrics.getTiles(), metrics.getTotalNanos() / 1_000_000, metrics.getTotalBlocks());
+        for (String line : metrics.describe()) {
+            LabsCraft.LOGGER.info("  {}", line);
+        }
+    }
+
+    /** Key of the blueprint {@link #prepare} produces for a seed; cheap, so callers can check it up front. */
+    public static String cacheKey(long seed) {
+        String source = "googleplex:layout=" + GoogleplexGenerator.LAYOUT_VERSION
+            + ":format=" + GoogleplexBlueprint.FORMAT_VERSION + ":seed=" + seed;
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(source.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+}
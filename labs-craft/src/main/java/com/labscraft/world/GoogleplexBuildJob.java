@@ -0,0 +1,430 @@
+package com.labscraft.world;
+
+import com.labscraft.LabsCraft;
+import com.labscraft.entity.ModEntities;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.block.BlockState;
+import net.minecraft.entity.SpawnReason;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.text.Text;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.chunk.WorldChunk;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * A Googleplex build spread across server ticks. The blueprint is prepared off-thread while a
+ * {@link ChunkPreloader} keeps the footprint's loaded chunks resident. Chunks that were not loaded
+ * when the build started are never loaded for it: they go to {@link PendingCampusEdits} and are
+ * built by {@link PendingCampusApplier} whenever they next load. Once ready, a new build copies the region
+ * it is about to overwrite into a {@link BuildSnapshot} for {@code /labscraft undo}, then each
+ * {@link #tick} stamps the next slice through a {@link SectionBlockWriter} and saves
+ * the voxel cursor to {@link GoogleplexState}, so a restart picks up at the last saved voxel.
+ * Jobs are queued and run one at a time by {@link GoogleplexBuildScheduler}.
+ */
+public class GoogleplexBuildJob implements BuildTask {
+    private final int id;
+    private final ServerWorld world;
+    private final GoogleplexGenerator generator;
+    private final CompletableFuture<GoogleplexBlueprint> pendingBlueprint;
+    @Nullable
+    private GoogleplexBlueprint blueprint;
+    @Nullable
+    private GoogleplexBlueprint.Stamper stamper;
+    private final WorldBlockSink sink;
+    @Nullable
+    private ChunkPreloader chunks;
+    // Footprint chunks left to PendingCampusEdits, and the tiles lying wholly inside them
+    private final LongSet deferred = new LongOpenHashSet();
+    private final BitSet deferredTiles = new BitSet();
+    private long lastChunk = Long.MIN_VALUE;
+    private boolean lastChunkDeferred;
+    private final BuildProgress progress = new BuildProgress();
+    // Air voxels passed over in empty sections without going through the writer
+    private long airSkipped;
+    private final boolean setsWorldSpawn;
+    @Nullable
+    private final ServerCommandSource requester;
+
+    private int cursor;
+    private final boolean resumed;
+    // Whether GoogleplexState holds this build; a queued job claims it only once it runs
+    private boolean recorded;
+    // Resumed builds keep the snapshot taken before they were interrupted, if it was committed
+    private boolean snapshotTaken;
+    @Nullable
+    private BuildSnapshot.Capture snapshot;
+
+    GoogleplexBuildJob(int id, ServerWorld world, BlockPos origin, int cursor, boolean resumed,
+                       boolean setsWorldSpawn, @Nullable ServerCommandSource requester) {
+        this.id = id;
+        this.world = world;
+        this.generator = new GoogleplexGenerator(origin, world.getSeed());
+        this.pendingBlueprint = GoogleplexBlueprints.prepare(world.getSeed());
+        this.cursor = cursor;
+        this.resumed = resumed;
+        this.recorded = resumed;
+        // Stopped mid-capture, the build resumes by capturing again: the file on disk is still the
+        // previous build's, and undoing it would revert that build instead of this one
+        this.snapshotTaken = resumed && GoogleplexState.get(world).isBuildSnapshotTaken();
+        // Chunks are relit once each, when the cursor leaves them, rather than after every slice
+        this.sink = new WorldBlockSink(new SectionBlockWriter(world, true), origin);
+        this.setsWorldSpawn = setsWorldSpawn;
+        this.requester = requester;
+    }
+
+    /**
+     * Stamps voxels until the budget runs out. Returns true once the job is over: the whole
+     * blueprint is applied, or it could not be prepared.
+     */
+    @Override
+    public boolean tick(BuildBudget budget) {
+        if (!recorded) {
+            GoogleplexState.get(world).startBuild(generator.getOrigin(), setsWorldSpawn,
+                    GoogleplexBlueprints.cacheKey(world.getSeed()));
+            recorded = true;
+        }
+        if (chunks == null) {
+            deferUnloadedChunks();
+        }
+        // Loading overlaps blueprint preparation; nothing is written until every chunk is resident
+        chunks.acquire();
+
+        if (stamper == null) {
+            if (!pendingBlueprint.isDone()) return false;
+            try {
+                blueprint = pendingBlueprint.join();
+            } catch (CompletionException | CancellationException e) {
+                fail(e.getCause() != null ? e.getCause() : e);
+                return true;
+            }
+            cursor = Math.min(cursor, blueprint.getOrder().volume());
+            stamper = blueprint.stamper(cursor);
+        }
+        if (!progress.isStarted()) {
+            if (!chunks.isLoaded()) return false;
+            if (!snapshotTaken && !captureSnapshot(budget)) return false;
+            progress.start(cursor, blueprint.getOrder().volume());
+        }
+
+        boolean done = false;
+        long stamped = 0;
+
+        // Only writes that change the world are charged; voxels skipped on the way cost time alone
+        while (budget.hasRemaining()) {
+            if (!stamper.next()) {
+                done = true;
+                break;
+            }
+            cursor = stamper.index() + 1;
+            if (!deferred.isEmpty() && isDeferred(stamper.x(), stamper.z())) {
+                // A tile wholly in deferred chunks is skipped in one step, a partly deferred one voxel by voxel
+                int tile = blueprint.getOrder().tileOf(stamper.x(), stamper.z());
+                if (deferredTiles.get(tile)) {
+                    cursor = blueprint.getOrder().tileStart(tile + 1);
+                    stamper = blueprint.stamper(cursor);
+                }
+                continue;
+            }
+            BlockState state = stamper.state();
+            if (state.isAir() && skipAirInEmptySections()) continue;
+            if (sink.write(stamper.x(), stamper.y(), stamper.z(), state)) {
+                // The block is placed either way; this only counts it against the tick
+                budget.tryConsume();
+                stamped++;
+            }
+        }
+        sink.flush();
+        progress.advance(done ? blueprint.getOrder().volume() : cursor, stamped);
+
+        if (!done) {
+            sink.getWriter().relight(this::isChunkFinished);
+            GoogleplexState.get(world).setBuildCursor(cursor);
+            return false;
+        }
+
+        sink.getWriter().relightAll();
+
+        finish();
+        return true;
+    }
+
+    /**
+     * Stops the job where it is. Blocks already placed stay; the world is not marked as generated,
+     * so a later build or auto-generation can still complete the campus.
+     */
+    @Override
+    public void cancel() {
+        abandonSnapshot();
+        sink.getWriter().relightAll();
+        if (chunks != null) {
+            chunks.release();
+            // Chunks the build never reached stay as they are, like the rest of the unbuilt campus
+            PendingCampusEdits.get(world).removeCampus(getOrigin());
+        }
+        if (recorded) {
+            GoogleplexState.get(world).cancelBuild();
+        }
+        LabsCraft.LOGGER.info("Googleplex build #{} at {} cancelled at voxel {}", id, generator.getOrigin(), cursor);
+    }
+
+    /**
+     * Passes over the current air run up to the end of this chunk section layer of the tile in one
+     * step, if every section the tile overlaps there is empty: writing air into them changes
+     * nothing. Returns false, leaving the voxel to the writer, if any of them holds blocks.
+     */
+    private boolean skipAirInEmptySections() {
+        TileOrder order = blueprint.getOrder();
+        BlockPos origin = getOrigin();
+        int tile = order.tileOf(stamper.x(), stamper.z());
+        int worldY = origin.getY() + stamper.y();
+        int sectionY = worldY >> 4;
+
+        if (!world.isOutOfHeightLimit(worldY)) {
+            int minX = origin.getX() + order.tileMinX(tile);
+            int minZ = origin.getZ() + order.tileMinZ(tile);
+            int maxX = minX + order.tileWidth(tile) - 1;
+            int maxZ = minZ + order.tileDepth(tile) - 1;
+            for (int cz = minZ >> 4; cz <= maxZ >> 4; cz++) {
+                for (int cx = minX >> 4; cx <= maxX >> 4; cx++) {
+                    // Deferred chunks are written by PendingCampusApplier, not here
+                    if (deferred.contains(ChunkPos.toLong(cx, cz))) continue;
+                    WorldChunk chunk = world.getChunk(cx, cz);
+                    if (!chunk.getSection(chunk.sectionCoordToIndex(sectionY)).isEmpty()) return false;
+                }
+            }
+        }
+
+        // Tile layers run bottom to top, so the section's layers are one contiguous span of voxels
+        int layersEnd = Math.min(order.getSizeY(), (sectionY + 1) * 16 - origin.getY() - order.getMinY());
+        int from = stamper.index();
+        stamper.skipRun(order.tileStart(tile) + layersEnd * order.tileWidth(tile) * order.tileDepth(tile));
+        cursor = stamper.index();
+        airSkipped += cursor - from;
+        return true;
+    }
+
+    // Returns true once the region is captured, or capturing failed and the build goes on without undo
+    private boolean captureSnapshot(BuildBudget budget) {
+        try {
+            if (snapshot == null) {
+                // Deferred chunks are captured by PendingCampusApplier just before it stamps them
+                snapshot = BuildSnapshot.Capture.ofBuild(world, getOrigin(), blueprint.getOrder(),
+                        chunk -> !deferred.contains(chunk));
+            }
+            if (!snapshot.step(budget)) return false;
+            snapshot.commit();
+            snapshot = null;
+        } catch (IOException e) {
+            LabsCraft.LOGGER.warn("Could not snapshot the Googleplex build region; this build can't be undone", e);
+            abandonSnapshot();
+            try {
+                // An older snapshot would revert the wrong build
+                BuildSnapshot.delete(world);
+            } catch (IOException ignored) {
+            }
+        }
+        snapshotTaken = true;
+        GoogleplexState.get(world).setBuildSnapshotTaken();
+        return true;
+    }
+
+    private void abandonSnapshot() {
+        if (snapshot == null) return;
+        try {
+            snapshot.close();
+        } catch (IOException e) {
+            LabsCraft.LOGGER.warn("Could not discard a partial undo snapshot", e);
+        }
+        snapshot = null;
+    }
+
+    /**
+     * Leaves the footprint's unloaded chunks to {@link PendingCampusEdits} and holds the rest. A
+     * resumed build keeps the split it started with, minus chunks that have loaded and been built
+     * since. The chunk Josh spawns in is always built now, so he never lands in an empty lobby.
+     */
+    private void deferUnloadedChunks() {
+        BlockPos origin = getOrigin();
+        TileOrder order = GoogleplexGenerator.blueprintOrder();
+        int maxX = origin.getX() + order.getSizeX() - 1;
+        int maxZ = origin.getZ() + order.getSizeZ() - 1;
+        PendingCampusEdits edits = PendingCampusEdits.get(world);
+
+        if (resumed) {
+            deferred.addAll(edits.chunksOf(origin));
+        } else {
+            BlockPos josh = generator.getJoshSpawnPos();
+            long joshChunk = ChunkPos.toLong(josh.getX() >> 4, josh.getZ() >> 4);
+            for (int cz = origin.getZ() >> 4; cz <= maxZ >> 4; cz++) {
+                for (int cx = origin.getX() >> 4; cx <= maxX >> 4; cx++) {
+                    long chunk = ChunkPos.toLong(cx, cz);
+                    if (chunk != joshChunk && !world.isChunkLoaded(cx, cz)) {
+                        deferred.add(chunk);
+                        edits.defer(origin, chunk);
+                    }
+                }
+            }
+        }
+
+        for (int tile = 0; tile < order.tileCount(); tile++) {
+            int minX = origin.getX() + order.tileMinX(tile);
+            int minZ = origin.getZ() + order.tileMinZ(tile);
+            int tileMaxX = minX + order.tileWidth(tile) - 1;
+            int tileMaxZ = minZ + order.tileDepth(tile) - 1;
+            if (deferred.contains(ChunkPos.toLong(minX >> 4, minZ >> 4))
+                    && deferred.contains(ChunkPos.toLong(tileMaxX >> 4, minZ >> 4))
+                    && deferred.contains(ChunkPos.toLong(minX >> 4, tileMaxZ >> 4))
+                    && deferred.contains(ChunkPos.toLong(tileMaxX >> 4, tileMaxZ >> 4))) {
+                deferredTiles.set(tile);
+            }
+        }
+
+        chunks = new ChunkPreloader(world, origin.getX(), origin.getZ(), maxX, maxZ, chunk -> !deferred.contains(chunk));
+        if (!deferred.isEmpty()) {
+            LabsCraft.LOGGER.info("Googleplex build #{} leaves {} unloaded chunks until they next load",
+                    id, deferred.size());
+        }
+    }
+
+    private boolean isDeferred(int x, int z) {
+        long chunk = ChunkPos.toLong((getOrigin().getX() + x) >> 4, (getOrigin().getZ() + z) >> 4);
+        if (chunk != lastChunk) {
+            lastChunk = chunk;
+            lastChunkDeferred = deferred.contains(chunk);
+        }
+        return lastChunkDeferred;
+    }
+
+    // Tiles are stamped in order, so a chunk is finished once the cursor is past the last tile it overlaps
+    private boolean isChunkFinished(long chunkKey) {
+        TileOrder order = blueprint.getOrder();
+        BlockPos origin = generator.getOrigin();
+        int maxX = ChunkPos.getPackedX(chunkKey) * 16 + 15 - origin.getX();
+        int maxZ = ChunkPos.getPackedZ(chunkKey) * 16 + 15 - origin.getZ();
+        int lastTile = order.tileOf(Math.clamp(maxX, 0, order.getSizeX() - 1),
+                Math.clamp(maxZ, 0, order.getSizeZ() - 1));
+        return cursor >= order.tileStart(lastTile + 1);
+    }
+
+    @Override
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public String getKind() {
+        return "build";
+    }
+
+    @Override
+    public String describeStatus() {
+        if (stamper == null) return "preparing blueprint";
+        if (!chunks.isLoaded()) {
+            return "loading chunks (" + chunks.getLoadedCount() + "/" + chunks.getChunkCount() + ")";
+        }
+        if (!progress.isStarted()) return "saving undo snapshot";
+        return "building, " + progress.summary();
+    }
+
+    @Override
+    public String getRequesterName() {
+        return requester != null ? requester.getName() : "server";
+    }
+
+    public BuildProgress getProgress() {
+        return progress;
+    }
+
+    @Override
+    public ServerWorld getWorld() {
+        return world;
+    }
+
+    @Override
+    public BlockPos getOrigin() {
+        return generator.getOrigin();
+    }
+
+    public int getCursor() {
+        return cursor;
+    }
+
+    /** True once the blueprint is prepared, the footprint is loaded and stamping has begun. */
+    public boolean isStamping() {
+        return progress.isStarted();
+    }
+
+
+    /** Voxels in the blueprint box, or 0 while the blueprint is being prepared. */
+    public int getVolume() {
+        return blueprint != null ? blueprint.getOrder().volume() : 0;
+    }
+
+    /** Blocks the blueprint writes, or 0 while the blueprint is being prepared. */
+    public int getTotalBlocks() {
+        return blueprint != null ? blueprint.getWriteCount() : 0;
+    }
+
+    // The pending build is left in GoogleplexState, so the next server start tries again
+    private void fail(Throwable cause) {
+        if (chunks != null) chunks.release();
+        LabsCraft.LOGGER.error("Could not prepare the Googleplex blueprint", cause);
+        if (requester != null) {
+            requester.sendError(Text.literal("Googleplex build failed: " + cause.getMessage()));
+        }
+    }
+
+    private void finish() {
+        finishCampus(world, generator, setsWorldSpawn);
+        chunks.release();
+
+        LabsCraft.LOGGER.info("Googleplex generated at origin {} ({} blocks changed, {} already matched; "
+                + "composing removed {}x overdraw)", generator.getOrigin(), sink.getWriter().getBlocksWritten(),
+                sink.getWriter().getBlocksSkipped() + airSkipped, String.format("%.2f", blueprint.getOverdrawRatio()));
+        LabsCraft.LOGGER.info("Googleplex build #{} resent {} chunks to nearby players", id,
+                sink.getWriter().getChunksResent());
+        if (requester != null) {
+            String later = deferred.isEmpty() ? ""
+                    : " " + deferred.size() + " unloaded chunks will be built when someone goes there.";
+            requester.sendFeedback(() -> Text.literal("Googleplex complete! Josh is in the lobby." + later), true);
+        }
+    }
+
+    /**
+     * Puts the finishing touches on a campus whose blocks are in place: spawns Josh, optionally
+     * moves the world spawn into the lobby and marks the world as generated.
+     */
+    static void finishCampus(ServerWorld world, GoogleplexGenerator generator, boolean setsWorldSpawn) {
+        // Spawn Josh Woodward NPC in the lobby
+        BlockPos joshPos = generator.getJoshSpawnPos();
+        var josh = ModEntities.JOSH_WOODWARD.create(world, SpawnReason.COMMAND);
+        if (josh != null) {
+            josh.refreshPositionAndAngles(
+                joshPos.getX() + 0.5, joshPos.getY(), joshPos.getZ() + 0.5,
+                180.0f, 0.0f
+            );
+            world.spawnEntity(josh);
+            LabsCraft.LOGGER.info("Josh Woodward spawned at {}", joshPos);
+        }
+
+        // Set world spawn inside the lobby entrance, facing south (into the building)
+        BlockPos lobbySpawn = generator.getLobbySpawnPos();
+        if (setsWorldSpawn) {
+            world.setSpawnPos(lobbySpawn, 180.0f);
+        }
+
+        // Mark as generated so auto-generator won't duplicate, and register its rooms
+        GoogleplexState state = GoogleplexState.get(world);
+        state.finishBuild();
+        state.addCampus(CampusRoomIndex.forLayout(generator.getOrigin()));
+    }
+}
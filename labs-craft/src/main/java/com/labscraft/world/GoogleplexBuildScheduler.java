@@ -0,0 +1,158 @@
+package com.labscraft.world;
+
+import com.labscraft.LabsCraft;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Runs Googleplex builds a slice per server tick so the server keeps responding while a
+ * campus goes up; the blueprint itself is laid out on worker threads. Builds and undos queue up
+ * and run one after another under a single per-tick write budget, so queuing more never costs the
+ * server more per tick. A build interrupted by a restart is resumed from the cursor saved in its world's
+ * {@link GoogleplexState}.
+ */
+public class GoogleplexBuildScheduler {
+    // At most this many writes, or this much of the 50ms tick, per server tick
+    private static final int BLOCKS_PER_TICK = 32_768;
+    private static final long NANOS_PER_TICK = 10_000_000L;
+    // Running build included; further builds are refused until one finishes or is cancelled
+    public static final int MAX_QUEUED = 4;
+
+    private static final BuildBudget budget = new BuildBudget(BLOCKS_PER_TICK, NANOS_PER_TICK);
+
+    // The head is the build that runs; the rest wait their turn
+    private static final Deque<BuildTask> jobs = new ArrayDeque<>();
+    private static int nextJobId = 1;
+
+    public static void register() {
+        ServerLifecycleEvents.SERVER_STARTED.register(GoogleplexBuildScheduler::resumePendingBuilds);
+        ServerTickEvents.END_SERVER_TICK.register(server -> tick());
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> jobs.clear());
+    }
+
+    public static boolean isBuilding() {
+        return !jobs.isEmpty();
+    }
+
+    /** True if a build or undo in {@code world} is queued or running. */
+    public static boolean hasTaskIn(ServerWorld world) {
+        for (BuildTask job : jobs) {
+            if (job.getWorld() == world) return true;
+        }
+        return false;
+    }
+
+    /** Queued tasks in run order; the first one is running. */
+    public static List<BuildTask> getJobs() {
+        return List.copyOf(jobs);
+    }
+
+    /** Queues a new build, or returns null if the queue is full. */
+    @Nullable
+    public static GoogleplexBuildJob start(ServerWorld world, BlockPos origin, boolean setsWorldSpawn,
+                                           @Nullable ServerCommandSource requester) {
+        if (jobs.size() >= MAX_QUEUED) return null;
+
+        // The job records itself in GoogleplexState when it reaches the head of the queue
+        GoogleplexBuildJob job = new GoogleplexBuildJob(nextJobId++, world, origin, 0, false,
+                setsWorldSpawn, requester);
+        jobs.addLast(job);
+        LabsCraft.LOGGER.info("Googleplex build #{} queued at {} ({} in queue)", job.getId(), origin, jobs.size());
+        return job;
+    }
+
+    /**
+     * Queues an undo of the world's latest build, or returns null if the queue is full or the world
+     * already has a task queued (see {@link #hasTaskIn}). Throws if the world has no readable snapshot.
+     */
+    @Nullable
+    public static UndoJob startUndo(ServerWorld world, @Nullable ServerCommandSource requester) throws IOException {
+        // The undo reads the snapshot now; a build queued ahead of it would replace that snapshot
+        // before the undo runs, which would then revert the older build over the newer campus
+        if (jobs.size() >= MAX_QUEUED || hasTaskIn(world)) return null;
+
+        UndoJob job = new UndoJob(nextJobId, world, requester);
+        nextJobId++;
+        jobs.addLast(job);
+        LabsCraft.LOGGER.info("Undo #{} queued for the build at {}", job.getId(), job.getOrigin());
+        return job;
+    }
+
+    /**
+     * Cancels a task by id, or the running task if {@code id} is negative. Returns the cancelled
+     * task, or null if there was no such task.
+     */
+    @Nullable
+    public static BuildTask cancel(int id) {
+        Iterator<BuildTask> it = jobs.iterator();
+        while (it.hasNext()) {
+            BuildTask job = it.next();
+            if (id < 0 || job.getId() == id) {
+                it.remove();
+                job.cancel();
+                return job;
+            }
+        }
+        return null;
+    }
+
+    private static void resumePendingBuilds(MinecraftServer server) {
+        // Partial undo captures left by a crash; no capture runs before this
+        BuildSnapshot.deleteLeftovers(server);
+
+        for (ServerWorld world : server.getWorlds()) {
+            GoogleplexState state = GoogleplexState.get(world);
+            if (!state.hasPendingBuild()) continue;
+
+            // A cursor saved against another blueprint points at the wrong voxels; restart it
+            // from the top, which is safe because stamping is idempotent
+            String key = GoogleplexBlueprints.cacheKey(world.getSeed());
+            int cursor = key.equals(state.getBuildBlueprint()) ? state.getBuildCursor() : 0;
+            if (cursor == 0) {
+                state.restartBuild(key);
+            }
+
+            GoogleplexBuildJob job = new GoogleplexBuildJob(nextJobId++, world, state.getBuildOrigin(), cursor, true,
+                    state.buildSetsSpawn(), null);
+            jobs.addLast(job);
+            LabsCraft.LOGGER.info("Resuming Googleplex build #{} at {} from voxel {}",
+                    job.getId(), state.getBuildOrigin(), job.getCursor());
+        }
+    }
+
+    private static void tick() {
+        if (jobs.isEmpty()) return;
+
+        // Budget left over when a build finishes goes to the next one in line
+        budget.begin();
+        while (!jobs.isEmpty() && !budget.isExhausted()) {
+            BuildTask job = jobs.peekFirst();
+            GoogleplexBuildSliceEvent event = new GoogleplexBuildSliceEvent();
+            event.begin();
+            int usedBefore = budget.getBlocksUsed();
+            boolean finished = job.tick(budget);
+            event.end();
+            if (event.shouldCommit()) {
+                event.task = job.getId();
+                event.kind = job.getKind();
+                event.budgetUsed = budget.getBlocksUsed() - usedBefore;
+                event.finished = finished;
+                event.commit();
+            }
+
+            if (!finished) return;
+            jobs.pollFirst();
+        }
+    }
+}
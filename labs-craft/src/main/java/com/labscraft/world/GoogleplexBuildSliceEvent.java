@@ -0,0 +1,26 @@
+package com.labscraft.world;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** JFR event for one tick's work on a build task, to line builds up against tick-time spikes. */
+@Name("labscraft.GoogleplexBuildSlice")
+@Label("Googleplex Build Slice")
+@Category({"LabsCraft", "Googleplex"})
+@Description("Work a queued Googleplex build or undo did in one server tick")
+class GoogleplexBuildSliceEvent extends Event {
+    @Label("Task")
+    int task;
+
+    @Label("Kind")
+    String kind;
+
+    @Label("Budget Used")
+    int budgetUsed;
+
+    @Label("Finished")
+    boolean finished;
+}
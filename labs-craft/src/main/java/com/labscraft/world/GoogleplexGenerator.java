@@ -1,230 +1,269 @@
 package com.labscraft.world;
 
-import com.labscraft.block.ModBlocks;
-import net.minecraft.block.BlockState;
-import net.minecraft.block.Blocks;
-import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.BlockPos;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.BitSet;
+
+/**
+ * Lays out the 200x200 Googleplex campus. The generator never touches the world: it paints
+ * {@link CampusBlock}s, relative to the origin, into whatever {@link BlockSink} it is given.
+ * {@link #compose} paints a tile into a {@link VoxelBuffer}, {@link GoogleplexBlueprints} compiles
+ * the buffers into a cached blueprint, and {@link GoogleplexBuildJob} stamps the blueprint a slice
+ * at a time. Each 16x16 tile is composed independently from its own column window.
+ */
 public class GoogleplexGenerator {
-    private final ServerWorld world;
+    // Bump whenever the layout changes so cached blueprints are recompiled
+    public static final int LAYOUT_VERSION = 2;
+
     private final BlockPos origin; // Southwest corner of building at ground level
+    // Ore is decided per position from this, so every tile and every build agrees on it
+    private final long oreSeed;
+    private BlockSink<CampusBlock> sink;
+    @Nullable
+    private GenerationMetrics metrics;
+    // Writes and campus-relative chunks of the phase in progress, kept while metrics are on
+    private long phaseWrites;
+    private final BitSet phaseChunks = new BitSet();
+    // What shapes draw into: clips to the tile and counts like direct writes do
+    private final BlockSink<CampusBlock> clipped = new BlockSink<>() {
+        @Override
+        public void setBlock(int x, int y, int z, CampusBlock block) {
+            GoogleplexGenerator.this.setBlock(x, y, z, block);
+        }
+
+        @Override
+        public void fillRow(int minX, int maxX, int y, int z, CampusBlock block) {
+            GoogleplexGenerator.this.fillRow(minX, maxX, y, z, block);
+        }
+    };
+
+    // Column window of the generation in progress; writes outside it are dropped
+    private int clipMinX;
+    private int clipMinZ;
+    private int clipMaxX;
+    private int clipMaxZ;
 
     // Building dimensions
     private static final int WIDTH = 200;
     private static final int DEPTH = 200;
     private static final int WALL_HEIGHT = 12;
     private static final int FLOOR_Y_OFFSET = 0;
+    private static final int CHUNKS_X = (WIDTH + 15) / 16;
+    private static final double ORE_CHANCE = 0.15;
+    // Top layer of the TPU mine pit and how many layers it runs down
+    static final int MINE_TOP_Y = FLOOR_Y_OFFSET;
+    static final int MINE_DEPTH = 15;
+
+    // Vertical extent of everything the campus writes, from the bottom of the cleared area to the top
+    private static final int MIN_Y = -20;
+    private static final int MAX_Y = WALL_HEIGHT + 5;
 
     // Block palettes
-    private static final BlockState EXTERIOR_WALL = Blocks.WHITE_CONCRETE.getDefaultState();
-    private static final BlockState EXTERIOR_ACCENT = Blocks.LIGHT_GRAY_CONCRETE.getDefaultState();
-    private static final BlockState GLASS = Blocks.LIGHT_GRAY_STAINED_GLASS.getDefaultState();
-    private static final BlockState FLOOR = Blocks.POLISHED_GRANITE.getDefaultState();
-    private static final BlockState FLOOR_ACCENT = Blocks.POLISHED_DIORITE.getDefaultState();
-    private static final BlockState CEILING = Blocks.SMOOTH_QUARTZ.getDefaultState();
-    private static final BlockState INTERIOR_WALL = Blocks.WHITE_CONCRETE.getDefaultState();
-    private static final BlockState AIR = Blocks.AIR.getDefaultState();
+    private static final CampusBlock EXTERIOR_WALL = CampusBlock.WHITE_CONCRETE;
+    private static final CampusBlock EXTERIOR_ACCENT = CampusBlock.LIGHT_GRAY_CONCRETE;
+    private static final CampusBlock GLASS = CampusBlock.LIGHT_GRAY_STAINED_GLASS;
+    private static final CampusBlock FLOOR = CampusBlock.POLISHED_GRANITE;
+    private static final CampusBlock FLOOR_ACCENT = CampusBlock.POLISHED_DIORITE;
+    private static final CampusBlock CEILING = CampusBlock.SMOOTH_QUARTZ;
+    private static final CampusBlock INTERIOR_WALL = CampusBlock.WHITE_CONCRETE;
+    private static final CampusBlock AIR = CampusBlock.AIR;
 
     // Google colors for accents
-    private static final BlockState GOOGLE_BLUE = Blocks.BLUE_CONCRETE.getDefaultState();
-    private static final BlockState GOOGLE_RED = Blocks.RED_CONCRETE.getDefaultState();
-    private static final BlockState GOOGLE_YELLOW = Blocks.YELLOW_CONCRETE.getDefaultState();
-    private static final BlockState GOOGLE_GREEN = Blocks.LIME_CONCRETE.getDefaultState();
+    private static final CampusBlock GOOGLE_BLUE = CampusBlock.BLUE_CONCRETE;
+    private static final CampusBlock GOOGLE_RED = CampusBlock.RED_CONCRETE;
+    private static final CampusBlock GOOGLE_YELLOW = CampusBlock.YELLOW_CONCRETE;
+    private static final CampusBlock GOOGLE_GREEN = CampusBlock.LIME_CONCRETE;
 
     // Lab accent colors
-    private static final BlockState FLOW_COLOR = Blocks.BLUE_CONCRETE.getDefaultState();
-    private static final BlockState GENIE_COLOR = Blocks.MAGENTA_CONCRETE.getDefaultState();
-    private static final BlockState DOPPL_COLOR = Blocks.CYAN_CONCRETE.getDefaultState();
-    private static final BlockState NOTEBOOK_COLOR = Blocks.ORANGE_CONCRETE.getDefaultState();
-    private static final BlockState OPAL_COLOR = Blocks.GREEN_CONCRETE.getDefaultState();
-    private static final BlockState MIXBOARD_COLOR = Blocks.PURPLE_CONCRETE.getDefaultState();
-
-    public GoogleplexGenerator(ServerWorld world, BlockPos origin) {
-        this.world = world;
+    private static final CampusBlock FLOW_COLOR = CampusBlock.BLUE_CONCRETE;
+    private static final CampusBlock GENIE_COLOR = CampusBlock.MAGENTA_CONCRETE;
+    private static final CampusBlock DOPPL_COLOR = CampusBlock.CYAN_CONCRETE;
+    private static final CampusBlock NOTEBOOK_COLOR = CampusBlock.ORANGE_CONCRETE;
+    private static final CampusBlock OPAL_COLOR = CampusBlock.GREEN_CONCRETE;
+    private static final CampusBlock MIXBOARD_COLOR = CampusBlock.PURPLE_CONCRETE;
+
+    public GoogleplexGenerator(BlockPos origin, long worldSeed) {
         this.origin = origin;
+        this.oreSeed = oreSeed(worldSeed);
+    }
+
+    /** Times and counts every phase of later generate calls into {@code metrics}, or stops if null. */
+    public void setMetrics(@Nullable GenerationMetrics metrics) {
+        this.metrics = metrics;
     }
 
-    public void generate() {
-        // Clear the area first
-        clearArea();
+    /** Box every write falls inside, relative to the origin. */
+    public static TileOrder blueprintOrder() {
+        return new TileOrder(WIDTH, MIN_Y, MAX_Y - MIN_Y, DEPTH);
+    }
 
-        // Build foundation and floor
-        buildFoundation();
+    /**
+     * Runs every build phase over columns {@code minX <= x < maxX}, {@code minZ <= z < maxZ} and
+     * returns the composed result; later phases replace earlier ones in memory. Safe to call from
+     * any thread on separate generators.
+     */
+    VoxelBuffer<CampusBlock> compose(int minX, int minZ, int maxX, int maxZ) {
+        VoxelBuffer<CampusBlock> voxels = new VoxelBuffer<>(minX, MIN_Y, minZ, maxX - minX, MAX_Y - MIN_Y, maxZ - minZ);
+        generate(voxels, minX, minZ, maxX, maxZ);
+        return voxels;
+    }
 
-        // Build exterior walls
-        buildExteriorWalls();
+    /** Paints the whole campus into {@code sink}, in phase order, overlapping writes and all. */
+    public void generate(BlockSink<CampusBlock> sink) {
+        generate(sink, 0, 0, WIDTH, DEPTH);
+    }
 
-        // Build ceiling
-        buildCeiling();
+    /** Paints the columns {@code minX <= x < maxX}, {@code minZ <= z < maxZ} into {@code sink}. */
+    public void generate(BlockSink<CampusBlock> sink, int minX, int minZ, int maxX, int maxZ) {
+        begin(sink, minX, minZ, maxX, maxZ);
+        for (Phase phase : Phase.values()) {
+            runMeasuredPhase(phase);
+        }
+        if (metrics != null) metrics.recordTile();
+        this.sink = null;
+    }
 
-        // Build entrance/lobby
-        buildLobby();
+    /** Paints one phase of the whole campus on its own, so phases can be measured separately. */
+    public void generatePhase(BlockSink<CampusBlock> sink, Phase phase) {
+        begin(sink, 0, 0, WIDTH, DEPTH);
+        runPhase(phase);
+        this.sink = null;
+    }
 
-        // Build central TPU mine
-        buildTPUMine();
+    /** Build phases in painting order; a later phase overwrites what earlier ones left. */
+    public enum Phase {
+        CLEAR_AREA,
+        FOUNDATION,
+        EXTERIOR_WALLS,
+        CEILING,
+        LOBBY,
+        TPU_MINE,
+        FLOW_LAB,
+        GENIE_LAB,
+        DOPPL_LAB,
+        NOTEBOOK_LM_LAB,
+        OPAL_LAB,
+        MIXBOARD_LAB,
+        CAFETERIA,
+        HALLWAYS,
+        DECORATIONS,
+        FURNITURE
+    }
 
-        // Build the 6 product labs
-        buildFlowLab();
-        buildGenieLab();
-        buildDopplLab();
-        buildNotebookLMLab();
-        buildOpalLab();
-        buildMixboardLab();
+    private void begin(BlockSink<CampusBlock> sink, int minX, int minZ, int maxX, int maxZ) {
+        this.sink = sink;
+        clipMinX = minX;
+        clipMinZ = minZ;
+        clipMaxX = maxX;
+        clipMaxZ = maxZ;
+    }
 
-        // Build cafeteria
-        buildCafeteria();
+    private void runMeasuredPhase(Phase phase) {
+        GoogleplexPhaseEvent event = new GoogleplexPhaseEvent();
+        if (metrics == null && !event.isEnabled()) {
+            runPhase(phase);
+            return;
+        }
 
-        // Add hallways connecting everything
-        buildHallways();
+        phaseWrites = 0;
+        phaseChunks.clear();
+        event.begin();
+        long start = System.nanoTime();
+        runPhase(phase);
+        long elapsed = System.nanoTime() - start;
+        event.end();
 
-        // Add decorations
-        addDecorations();
+        if (metrics != null) {
+            metrics.record(phase, phaseWrites, elapsed, phaseChunks);
+        }
+        if (event.shouldCommit()) {
+            event.phase = phase.name();
+            event.tileX = clipMinX;
+            event.tileZ = clipMinZ;
+            event.blocks = phaseWrites;
+            event.commit();
+        }
+    }
 
-        // Place interactive furniture
-        placeFlowCraftingTable();
+    private void runPhase(Phase phase) {
+        switch (phase) {
+            case CLEAR_AREA -> clearArea();
+            case FOUNDATION -> buildFoundation();
+            case EXTERIOR_WALLS -> buildExteriorWalls();
+            case CEILING -> buildCeiling();
+            case LOBBY -> buildLobby();
+            case TPU_MINE -> buildTPUMine();
+            case FLOW_LAB -> buildFlowLab();
+            case GENIE_LAB -> buildGenieLab();
+            case DOPPL_LAB -> buildDopplLab();
+            case NOTEBOOK_LM_LAB -> buildNotebookLMLab();
+            case OPAL_LAB -> buildOpalLab();
+            case MIXBOARD_LAB -> buildMixboardLab();
+            case CAFETERIA -> buildCafeteria();
+            // Hallways connect everything, so they go after the rooms
+            case HALLWAYS -> buildHallways();
+            case DECORATIONS -> addDecorations();
+            case FURNITURE -> placeFlowCraftingTable();
+        }
     }
 
     private void clearArea() {
-        for (int x = 0; x < WIDTH; x++) {
-            for (int z = 0; z < DEPTH; z++) {
-                for (int y = -20; y < WALL_HEIGHT + 5; y++) {
-                    setBlock(x, y, z, AIR);
-                }
-            }
-        }
+        // The full-area phases only loop over the clip window; everything else is small enough to filter
+        BlockShapes.fillBox(clipped, Math.max(0, clipMinX), MIN_Y, Math.max(0, clipMinZ),
+            Math.min(WIDTH, clipMaxX), MAX_Y, Math.min(DEPTH, clipMaxZ), AIR);
     }
 
     private void buildFoundation() {
-        // Main floor
-        for (int x = 0; x < WIDTH; x++) {
-            for (int z = 0; z < DEPTH; z++) {
-                // Checkerboard pattern
-                if ((x + z) % 8 < 4) {
-                    setBlock(x, FLOOR_Y_OFFSET, z, FLOOR);
-                } else {
-                    setBlock(x, FLOOR_Y_OFFSET, z, FLOOR_ACCENT);
-                }
-            }
-        }
+        // Main floor, checkerboard pattern
+        BlockShapes.floorPattern(clipped, Math.max(0, clipMinX), Math.max(0, clipMinZ),
+            Math.min(WIDTH, clipMaxX), Math.min(DEPTH, clipMaxZ), FLOOR_Y_OFFSET,
+            (x, z) -> (x + z) % 8 < 4 ? FLOOR : FLOOR_ACCENT);
     }
 
     private void buildExteriorWalls() {
-        // North wall (z = 0)
-        for (int x = 0; x < WIDTH; x++) {
-            for (int y = 1; y <= WALL_HEIGHT; y++) {
-                if (y == 3 || y == 7 || y == 11) {
-                    setBlock(x, y, 0, EXTERIOR_ACCENT);
-                } else if (y >= 4 && y <= 6 || y >= 8 && y <= 10) {
-                    // Windows
-                    if (x % 6 != 0) {
-                        setBlock(x, y, 0, GLASS);
-                    } else {
-                        setBlock(x, y, 0, EXTERIOR_WALL);
-                    }
-                } else {
-                    setBlock(x, y, 0, EXTERIOR_WALL);
-                }
-            }
-        }
-
-        // South wall (z = DEPTH-1)
-        for (int x = 0; x < WIDTH; x++) {
-            for (int y = 1; y <= WALL_HEIGHT; y++) {
-                if (y == 3 || y == 7 || y == 11) {
-                    setBlock(x, y, DEPTH - 1, EXTERIOR_ACCENT);
-                } else if (y >= 4 && y <= 6 || y >= 8 && y <= 10) {
-                    if (x % 6 != 0) {
-                        setBlock(x, y, DEPTH - 1, GLASS);
-                    } else {
-                        setBlock(x, y, DEPTH - 1, EXTERIOR_WALL);
-                    }
-                } else {
-                    setBlock(x, y, DEPTH - 1, EXTERIOR_WALL);
-                }
-            }
-        }
-
-        // West wall (x = 0)
-        for (int z = 0; z < DEPTH; z++) {
-            for (int y = 1; y <= WALL_HEIGHT; y++) {
-                if (y == 3 || y == 7 || y == 11) {
-                    setBlock(0, y, z, EXTERIOR_ACCENT);
-                } else if (y >= 4 && y <= 6 || y >= 8 && y <= 10) {
-                    if (z % 6 != 0) {
-                        setBlock(0, y, z, GLASS);
-                    } else {
-                        setBlock(0, y, z, EXTERIOR_WALL);
-                    }
-                } else {
-                    setBlock(0, y, z, EXTERIOR_WALL);
-                }
-            }
-        }
+        BlockShapes.wallAlongX(clipped, 0, WIDTH, 0, 1, WALL_HEIGHT + 1, GoogleplexGenerator::exteriorWall);
+        BlockShapes.wallAlongX(clipped, 0, WIDTH, DEPTH - 1, 1, WALL_HEIGHT + 1, GoogleplexGenerator::exteriorWall);
+        BlockShapes.wallAlongZ(clipped, 0, 0, DEPTH, 1, WALL_HEIGHT + 1, GoogleplexGenerator::exteriorWall);
+        BlockShapes.wallAlongZ(clipped, WIDTH - 1, 0, DEPTH, 1, WALL_HEIGHT + 1, GoogleplexGenerator::exteriorWall);
+    }
 
-        // East wall (x = WIDTH-1)
-        for (int x = WIDTH - 1; x == WIDTH - 1; x++) {
-            for (int z = 0; z < DEPTH; z++) {
-                for (int y = 1; y <= WALL_HEIGHT; y++) {
-                    if (y == 3 || y == 7 || y == 11) {
-                        setBlock(x, y, z, EXTERIOR_ACCENT);
-                    } else if (y >= 4 && y <= 6 || y >= 8 && y <= 10) {
-                        if (z % 6 != 0) {
-                            setBlock(x, y, z, GLASS);
-                        } else {
-                            setBlock(x, y, z, EXTERIOR_WALL);
-                        }
-                    } else {
-                        setBlock(x, y, z, EXTERIOR_WALL);
-                    }
-                }
-            }
-        }
+    // Accent bands between two rows of windows, with a pillar every 6 blocks along the wall
+    private static CampusBlock exteriorWall(int along, int y) {
+        if (y == 3 || y == 7 || y == 11) return EXTERIOR_ACCENT;
+        if ((y >= 4 && y <= 6 || y >= 8 && y <= 10) && along % 6 != 0) return GLASS;
+        return EXTERIOR_WALL;
     }
 
     private void buildCeiling() {
-        for (int x = 1; x < WIDTH - 1; x++) {
-            for (int z = 1; z < DEPTH - 1; z++) {
-                setBlock(x, WALL_HEIGHT + 1, z, CEILING);
-            }
-        }
+        BlockShapes.fillBox(clipped, Math.max(1, clipMinX), WALL_HEIGHT + 1, Math.max(1, clipMinZ),
+            Math.min(WIDTH - 1, clipMaxX), WALL_HEIGHT + 2, Math.min(DEPTH - 1, clipMaxZ), CEILING);
     }
 
     private void buildLobby() {
         // Lobby at north side, center (entrance)
-        int lobbyStartX = 70;
-        int lobbyEndX = 130;
-        int lobbyDepth = 30;
+        int lobbyStartX = CampusRoom.LOBBY.getMinX();
+        int lobbyEndX = CampusRoom.LOBBY.getMaxX();
+        int lobbyDepth = CampusRoom.LOBBY.getMaxZ();
 
         // Clear entrance in north wall
-        for (int x = lobbyStartX + 20; x < lobbyEndX - 20; x++) {
-            for (int y = 1; y <= 4; y++) {
-                setBlock(x, y, 0, AIR);
-            }
-        }
+        BlockShapes.fillBox(clipped, lobbyStartX + 20, 1, 0, lobbyEndX - 20, 5, 1, AIR);
 
         // Lobby floor - Google colors stripe
-        for (int x = lobbyStartX; x < lobbyEndX; x++) {
-            for (int z = 1; z < lobbyDepth; z++) {
-                int stripe = (x - lobbyStartX) / 15;
-                BlockState color = switch (stripe % 4) {
-                    case 0 -> GOOGLE_BLUE;
-                    case 1 -> GOOGLE_RED;
-                    case 2 -> GOOGLE_YELLOW;
-                    default -> GOOGLE_GREEN;
-                };
-                setBlock(x, FLOOR_Y_OFFSET, z, color);
-            }
-        }
+        BlockShapes.floorPattern(clipped, lobbyStartX, 1, lobbyEndX, lobbyDepth, FLOOR_Y_OFFSET,
+            (x, z) -> switch ((x - lobbyStartX) / 15 % 4) {
+                case 0 -> GOOGLE_BLUE;
+                case 1 -> GOOGLE_RED;
+                case 2 -> GOOGLE_YELLOW;
+                default -> GOOGLE_GREEN;
+            });
 
         // Reception desk
         int deskX = 95;
         int deskZ = 15;
-        for (int x = deskX; x < deskX + 10; x++) {
-            setBlock(x, 1, deskZ, Blocks.QUARTZ_SLAB.getDefaultState());
-            setBlock(x, 1, deskZ + 1, Blocks.QUARTZ_BLOCK.getDefaultState());
-            setBlock(x, 1, deskZ + 2, Blocks.QUARTZ_SLAB.getDefaultState());
-        }
+        BlockShapes.fillBox(clipped, deskX, 1, deskZ, deskX + 10, 2, deskZ + 1, CampusBlock.QUARTZ_SLAB);
+        BlockShapes.fillBox(clipped, deskX, 1, deskZ + 1, deskX + 10, 2, deskZ + 2, CampusBlock.QUARTZ_BLOCK);
+        BlockShapes.fillBox(clipped, deskX, 1, deskZ + 2, deskX + 10, 2, deskZ + 3, CampusBlock.QUARTZ_SLAB);
 
         // "LABS" sign on back wall using colored wool
         buildLabsSign(85, 6, lobbyDepth - 1);
@@ -232,7 +271,7 @@ public class GoogleplexGenerator {
 
     private void buildLabsSign(int startX, int startY, int z) {
         // Simple "LABS" text using blocks
-        BlockState letter = Blocks.WHITE_WOOL.getDefaultState();
+        CampusBlock letter = CampusBlock.WHITE_WOOL;
 
         // L
         for (int y = 0; y < 5; y++) setBlock(startX, startY + y, z, letter);
@@ -273,34 +312,26 @@ public class GoogleplexGenerator {
 
     private void buildTPUMine() {
         // Central pit, 50x50, going down 15 blocks
-        int mineStartX = 75;
-        int mineStartZ = 75;
-        int mineSize = 50;
-        int mineDepth = 15;
-
-        // Glass floor around the pit
-        for (int x = mineStartX - 5; x < mineStartX + mineSize + 5; x++) {
-            for (int z = mineStartZ - 5; z < mineStartZ + mineSize + 5; z++) {
-                if (x < mineStartX || x >= mineStartX + mineSize ||
-                    z < mineStartZ || z >= mineStartZ + mineSize) {
-                    setBlock(x, FLOOR_Y_OFFSET, z, Blocks.LIGHT_BLUE_STAINED_GLASS.getDefaultState());
-                }
-            }
-        }
-
-        // Dig the pit
-        for (int x = mineStartX; x < mineStartX + mineSize; x++) {
-            for (int z = mineStartZ; z < mineStartZ + mineSize; z++) {
-                for (int y = FLOOR_Y_OFFSET; y > FLOOR_Y_OFFSET - mineDepth; y--) {
-                    if (y == FLOOR_Y_OFFSET - mineDepth + 1) {
-                        // Bottom floor
-                        setBlock(x, y, z, Blocks.DEEPSLATE.getDefaultState());
-                    } else {
-                        setBlock(x, y, z, AIR);
-                    }
-                }
-            }
-        }
+        int mineStartX = CampusRoom.TPU_MINE.getMinX();
+        int mineStartZ = CampusRoom.TPU_MINE.getMinZ();
+        int mineSize = CampusRoom.TPU_MINE.getWidth();
+        int mineDepth = MINE_DEPTH;
+
+        // Glass floor around the pit, 5 wide
+        int mineEndX = mineStartX + mineSize;
+        int mineEndZ = mineStartZ + mineSize;
+        CampusBlock glass = CampusBlock.LIGHT_BLUE_STAINED_GLASS;
+        int y0 = FLOOR_Y_OFFSET;
+        BlockShapes.fillBox(clipped, mineStartX - 5, y0, mineStartZ - 5, mineEndX + 5, y0 + 1, mineStartZ, glass);
+        BlockShapes.fillBox(clipped, mineStartX - 5, y0, mineEndZ, mineEndX + 5, y0 + 1, mineEndZ + 5, glass);
+        BlockShapes.fillBox(clipped, mineStartX - 5, y0, mineStartZ, mineStartX, y0 + 1, mineEndZ, glass);
+        BlockShapes.fillBox(clipped, mineEndX, y0, mineStartZ, mineEndX + 5, y0 + 1, mineEndZ, glass);
+
+        // Dig the pit, with a deepslate bottom floor
+        int bottomY = FLOOR_Y_OFFSET - mineDepth + 1;
+        BlockShapes.fillBox(clipped, mineStartX, bottomY + 1, mineStartZ, mineEndX, FLOOR_Y_OFFSET + 1, mineEndZ, AIR);
+        BlockShapes.fillBox(clipped, mineStartX, bottomY, mineStartZ, mineEndX, bottomY + 1, mineEndZ,
+            CampusBlock.DEEPSLATE);
 
         // Walls of the pit with stone and TPU ore veins
         for (int y = FLOOR_Y_OFFSET; y > FLOOR_Y_OFFSET - mineDepth; y--) {
@@ -316,80 +347,58 @@ public class GoogleplexGenerator {
 
         // Ladders down on one side
         for (int y = FLOOR_Y_OFFSET; y > FLOOR_Y_OFFSET - mineDepth + 1; y--) {
-            setBlock(mineStartX + 1, y, mineStartZ, Blocks.LADDER.getDefaultState());
+            setBlock(mineStartX + 1, y, mineStartZ, CampusBlock.LADDER);
         }
 
         // Safety railing around the pit
-        for (int x = mineStartX - 1; x <= mineStartX + mineSize; x++) {
-            setBlock(x, 2, mineStartZ - 1, Blocks.IRON_BARS.getDefaultState());
-            setBlock(x, 2, mineStartZ + mineSize, Blocks.IRON_BARS.getDefaultState());
-        }
-        for (int z = mineStartZ - 1; z <= mineStartZ + mineSize; z++) {
-            setBlock(mineStartX - 1, 2, z, Blocks.IRON_BARS.getDefaultState());
-            setBlock(mineStartX + mineSize, 2, z, Blocks.IRON_BARS.getDefaultState());
-        }
+        BlockShapes.hollowBox(clipped, mineStartX - 1, 2, mineStartZ - 1, mineEndX + 1, 3, mineEndZ + 1,
+            CampusBlock.IRON_BARS);
 
         // TPU Mine sign
         // TODO: Add sign
     }
 
     private void placeWallWithOre(int x, int y, int z) {
-        // Random TPU ore veins
-        if (Math.random() < 0.15) {
-            if (y < FLOOR_Y_OFFSET - 8) {
-                setBlock(x, y, z, ModBlocks.DEEPSLATE_TPU_ORE.getDefaultState());
-            } else {
-                setBlock(x, y, z, ModBlocks.TPU_ORE.getDefaultState());
-            }
-        } else {
-            if (y < FLOOR_Y_OFFSET - 8) {
-                setBlock(x, y, z, Blocks.DEEPSLATE.getDefaultState());
-            } else {
-                setBlock(x, y, z, Blocks.STONE.getDefaultState());
-            }
-        }
+        setBlock(x, y, z, mineWallBlock(oreSeed, x, y, z));
     }
 
-    private void buildLab(int startX, int startZ, int width, int depth, BlockState accentColor, String name) {
-        // Build walls
-        for (int x = startX; x < startX + width; x++) {
-            for (int y = 1; y <= 8; y++) {
-                setBlock(x, y, startZ, INTERIOR_WALL);
-                setBlock(x, y, startZ + depth - 1, INTERIOR_WALL);
-            }
-        }
-        for (int z = startZ; z < startZ + depth; z++) {
-            for (int y = 1; y <= 8; y++) {
-                setBlock(startX, y, z, INTERIOR_WALL);
-                setBlock(startX + width - 1, y, z, INTERIOR_WALL);
-            }
-        }
+    /** Seed that decides where TPU ore sits in the mine walls of campuses built in a world. */
+    static long oreSeed(long worldSeed) {
+        return PositionalRandom.split(worldSeed, "labscraft:tpu_ore");
+    }
 
-        // Accent stripe at top
-        for (int x = startX; x < startX + width; x++) {
-            setBlock(x, 8, startZ, accentColor);
-            setBlock(x, 8, startZ + depth - 1, accentColor);
-        }
-        for (int z = startZ; z < startZ + depth; z++) {
-            setBlock(startX, 8, z, accentColor);
-            setBlock(startX + width - 1, 8, z, accentColor);
-        }
+    /**
+     * What the mine wall holds at a campus-relative position: ore or plain rock, deepslate below
+     * the upper layers. Depends only on the seed and position, so a mined block can be put back as
+     * it was built.
+     */
+    static CampusBlock mineWallBlock(long oreSeed, int x, int y, int z) {
+        // TPU ore veins, seeded by position relative to the campus so the blueprint can be reused anywhere
+        boolean deep = y < FLOOR_Y_OFFSET - 8;
+        if (PositionalRandom.nextDouble(oreSeed, x, y, z) < ORE_CHANCE) {
+            return deep ? CampusBlock.DEEPSLATE_TPU_ORE : CampusBlock.TPU_ORE;
+        }
+        return deep ? CampusBlock.DEEPSLATE : CampusBlock.STONE;
+    }
+
+    private void buildLab(CampusRoom room, CampusBlock accentColor) {
+        int startX = room.getMinX();
+        int startZ = room.getMinZ();
+        int width = room.getWidth();
+        int depth = room.getDepth();
+
+        // Walls, with an accent stripe at the top
+        int endX = startX + width;
+        int endZ = startZ + depth;
+        BlockShapes.hollowBox(clipped, startX, 1, startZ, endX, 8, endZ, INTERIOR_WALL);
+        BlockShapes.hollowBox(clipped, startX, 8, startZ, endX, 9, endZ, accentColor);
 
         // Doorway
-        for (int y = 1; y <= 3; y++) {
-            setBlock(startX + width / 2, y, startZ, AIR);
-            setBlock(startX + width / 2 + 1, y, startZ, AIR);
-        }
+        BlockShapes.fillBox(clipped, startX + width / 2, 1, startZ, startX + width / 2 + 2, 4, startZ + 1, AIR);
 
         // Floor with accent color border
-        for (int x = startX + 1; x < startX + width - 1; x++) {
-            for (int z = startZ + 1; z < startZ + depth - 1; z++) {
-                if (x == startX + 1 || x == startX + width - 2 ||
-                    z == startZ + 1 || z == startZ + depth - 2) {
-                    setBlock(x, FLOOR_Y_OFFSET, z, accentColor);
-                }
-            }
-        }
+        BlockShapes.hollowBox(clipped, startX + 1, FLOOR_Y_OFFSET, startZ + 1, endX - 1, FLOOR_Y_OFFSET + 1, endZ - 1,
+            accentColor);
 
         // Console in center
         int consoleX = startX + width / 2;
@@ -398,67 +407,60 @@ public class GoogleplexGenerator {
 
         // Desk/workstations
         for (int i = 0; i < 3; i++) {
-            setBlock(startX + 3, 1, startZ + 5 + i * 4, Blocks.SPRUCE_PLANKS.getDefaultState());
-            setBlock(startX + width - 4, 1, startZ + 5 + i * 4, Blocks.SPRUCE_PLANKS.getDefaultState());
+            setBlock(startX + 3, 1, startZ + 5 + i * 4, CampusBlock.SPRUCE_PLANKS);
+            setBlock(startX + width - 4, 1, startZ + 5 + i * 4, CampusBlock.SPRUCE_PLANKS);
         }
 
         // Lighting
-        setBlock(startX + width / 2, 7, startZ + depth / 2, Blocks.SEA_LANTERN.getDefaultState());
+        setBlock(startX + width / 2, 7, startZ + depth / 2, CampusBlock.SEA_LANTERN);
     }
 
     private void buildFlowLab() {
         // Top-left area
-        buildLab(10, 35, 40, 45, FLOW_COLOR, "Flow");
+        buildLab(CampusRoom.FLOW_LAB, FLOW_COLOR);
         // Add Flow Console
-        setBlock(30, 1, 57, ModBlocks.FLOW_CONSOLE.getDefaultState());
+        setBlock(30, 1, 57, CampusBlock.FLOW_CONSOLE);
     }
 
     private void buildGenieLab() {
         // Top-right area
-        buildLab(150, 35, 40, 45, GENIE_COLOR, "Genie");
-        setBlock(170, 1, 57, ModBlocks.NANO_BANANA_CONSOLE.getDefaultState());
+        buildLab(CampusRoom.GENIE_LAB, GENIE_COLOR);
+        setBlock(170, 1, 57, CampusBlock.NANO_BANANA_CONSOLE);
     }
 
     private void buildDopplLab() {
         // Middle-left area
-        buildLab(10, 85, 40, 45, DOPPL_COLOR, "Doppl");
+        buildLab(CampusRoom.DOPPL_LAB, DOPPL_COLOR);
     }
 
     private void buildNotebookLMLab() {
         // Middle-right area
-        buildLab(150, 85, 40, 45, NOTEBOOK_COLOR, "NotebookLM");
+        buildLab(CampusRoom.NOTEBOOK_LM_LAB, NOTEBOOK_COLOR);
     }
 
     private void buildOpalLab() {
         // Bottom-left area
-        buildLab(10, 135, 40, 45, OPAL_COLOR, "Opal");
+        buildLab(CampusRoom.OPAL_LAB, OPAL_COLOR);
     }
 
     private void buildMixboardLab() {
         // Bottom-right area
-        buildLab(150, 135, 40, 45, MIXBOARD_COLOR, "Mixboard");
+        buildLab(CampusRoom.MIXBOARD_LAB, MIXBOARD_COLOR);
     }
 
     private void buildCafeteria() {
         // Bottom center area
-        int cafeStartX = 55;
-        int cafeStartZ = 170;
-        int cafeWidth = 90;
-        int cafeDepth = 25;
+        int cafeStartX = CampusRoom.CAFETERIA.getMinX();
+        int cafeStartZ = CampusRoom.CAFETERIA.getMinZ();
+        int cafeWidth = CampusRoom.CAFETERIA.getWidth();
+        int cafeDepth = CampusRoom.CAFETERIA.getDepth();
 
         // Walls
-        for (int x = cafeStartX; x < cafeStartX + cafeWidth; x++) {
-            for (int y = 1; y <= 6; y++) {
-                setBlock(x, y, cafeStartZ, INTERIOR_WALL);
-            }
-        }
+        BlockShapes.fillBox(clipped, cafeStartX, 1, cafeStartZ, cafeStartX + cafeWidth, 7, cafeStartZ + 1, INTERIOR_WALL);
 
         // Different floor
-        for (int x = cafeStartX; x < cafeStartX + cafeWidth; x++) {
-            for (int z = cafeStartZ + 1; z < cafeStartZ + cafeDepth; z++) {
-                setBlock(x, FLOOR_Y_OFFSET, z, Blocks.DARK_OAK_PLANKS.getDefaultState());
-            }
-        }
+        BlockShapes.fillBox(clipped, cafeStartX, FLOOR_Y_OFFSET, cafeStartZ + 1,
+            cafeStartX + cafeWidth, FLOOR_Y_OFFSET + 1, cafeStartZ + cafeDepth, CampusBlock.DARK_OAK_PLANKS);
 
         // Tables and chairs
         for (int i = 0; i < 5; i++) {
@@ -466,71 +468,53 @@ public class GoogleplexGenerator {
             int tableZ = cafeStartZ + 10;
 
             // Table
-            setBlock(tableX, 1, tableZ, Blocks.SPRUCE_FENCE.getDefaultState());
-            setBlock(tableX, 2, tableZ, Blocks.SPRUCE_PRESSURE_PLATE.getDefaultState());
+            setBlock(tableX, 1, tableZ, CampusBlock.SPRUCE_FENCE);
+            setBlock(tableX, 2, tableZ, CampusBlock.SPRUCE_PRESSURE_PLATE);
 
             // Chairs (stairs facing table)
-            setBlock(tableX - 1, 1, tableZ, Blocks.SPRUCE_STAIRS.getDefaultState());
-            setBlock(tableX + 1, 1, tableZ, Blocks.SPRUCE_STAIRS.getDefaultState());
+            setBlock(tableX - 1, 1, tableZ, CampusBlock.SPRUCE_STAIRS);
+            setBlock(tableX + 1, 1, tableZ, CampusBlock.SPRUCE_STAIRS);
         }
 
         // Counter/kitchen area
-        for (int x = cafeStartX + 5; x < cafeStartX + cafeWidth - 5; x++) {
-            setBlock(x, 1, cafeStartZ + 2, Blocks.SMOOTH_STONE_SLAB.getDefaultState());
-        }
+        BlockShapes.fillBox(clipped, cafeStartX + 5, 1, cafeStartZ + 2, cafeStartX + cafeWidth - 5, 2, cafeStartZ + 3,
+            CampusBlock.SMOOTH_STONE_SLAB);
 
         // Doorway
-        for (int y = 1; y <= 3; y++) {
-            setBlock(cafeStartX + cafeWidth / 2, y, cafeStartZ, AIR);
-            setBlock(cafeStartX + cafeWidth / 2 + 1, y, cafeStartZ, AIR);
-        }
+        BlockShapes.fillBox(clipped, cafeStartX + cafeWidth / 2, 1, cafeStartZ,
+            cafeStartX + cafeWidth / 2 + 2, 4, cafeStartZ + 1, AIR);
 
         // Lighting
         for (int i = 0; i < 3; i++) {
-            setBlock(cafeStartX + 20 + i * 25, 5, cafeStartZ + 12, Blocks.LANTERN.getDefaultState());
+            setBlock(cafeStartX + 20 + i * 25, 5, cafeStartZ + 12, CampusBlock.LANTERN);
         }
     }
 
     private void buildHallways() {
-        // Main central hallway (north-south)
-        for (int z = 30; z < 170; z++) {
-            for (int x = 55; x < 145; x++) {
-                // Skip TPU mine area
-                if (x >= 70 && x <= 130 && z >= 70 && z <= 130) continue;
-
-                // Clear height for hallway
-                for (int y = 1; y <= 8; y++) {
-                    BlockPos pos = origin.add(x, y, z);
-                    if (world.getBlockState(pos).isOf(Blocks.AIR)) continue;
-                    if (!world.getBlockState(pos).isOf(Blocks.WHITE_CONCRETE) &&
-                        !world.getBlockState(pos).isOf(Blocks.IRON_BARS)) {
-                        // Don't clear walls
-                    }
-                }
-            }
-        }
+        // Main central hallway (north-south, x=55-144, z=30-169) needs no clearing:
+        // clearArea already emptied it and no room is built inside it.
 
         // Hallway lighting
         for (int z = 35; z < 170; z += 10) {
             if (z < 70 || z > 130) {
-                setBlock(100, 7, z, Blocks.GLOWSTONE.getDefaultState());
+                setBlock(100, 7, z, CampusBlock.GLOWSTONE);
             }
         }
     }
 
     private void addDecorations() {
         // Plants in lobby
-        setBlock(75, 1, 10, Blocks.POTTED_FERN.getDefaultState());
-        setBlock(125, 1, 10, Blocks.POTTED_FERN.getDefaultState());
-        setBlock(80, 1, 25, Blocks.POTTED_BAMBOO.getDefaultState());
-        setBlock(120, 1, 25, Blocks.POTTED_BAMBOO.getDefaultState());
+        setBlock(75, 1, 10, CampusBlock.POTTED_FERN);
+        setBlock(125, 1, 10, CampusBlock.POTTED_FERN);
+        setBlock(80, 1, 25, CampusBlock.POTTED_BAMBOO);
+        setBlock(120, 1, 25, CampusBlock.POTTED_BAMBOO);
 
         // Benches in hallways
         for (int z = 40; z < 70; z += 15) {
-            setBlock(52, 1, z, Blocks.SPRUCE_STAIRS.getDefaultState());
-            setBlock(53, 1, z, Blocks.SPRUCE_STAIRS.getDefaultState());
-            setBlock(147, 1, z, Blocks.SPRUCE_STAIRS.getDefaultState());
-            setBlock(148, 1, z, Blocks.SPRUCE_STAIRS.getDefaultState());
+            setBlock(52, 1, z, CampusBlock.SPRUCE_STAIRS);
+            setBlock(53, 1, z, CampusBlock.SPRUCE_STAIRS);
+            setBlock(147, 1, z, CampusBlock.SPRUCE_STAIRS);
+            setBlock(148, 1, z, CampusBlock.SPRUCE_STAIRS);
         }
 
         // Ceiling lights throughout
@@ -541,19 +525,36 @@ public class GoogleplexGenerator {
                 if (x >= 10 && x <= 50 && z >= 35 && z <= 180) continue;
                 if (x >= 150 && x <= 190 && z >= 35 && z <= 180) continue;
 
-                setBlock(x, WALL_HEIGHT, z, Blocks.GLOWSTONE.getDefaultState());
+                setBlock(x, WALL_HEIGHT, z, CampusBlock.GLOWSTONE);
             }
         }
     }
 
     private void placeFlowCraftingTable() {
         // Place in lobby, left of reception desk
-        setBlock(85, 1, 12, ModBlocks.FLOW_CRAFTING_TABLE.getDefaultState());
+        setBlock(85, 1, 12, CampusBlock.FLOW_CRAFTING_TABLE);
     }
 
-    private void setBlock(int x, int y, int z, BlockState state) {
-        BlockPos pos = origin.add(x, y, z);
-        world.setBlockState(pos, state);
+    private void setBlock(int x, int y, int z, CampusBlock block) {
+        if (x < clipMinX || x >= clipMaxX || z < clipMinZ || z >= clipMaxZ) return;
+        sink.setBlock(x, y, z, block);
+        phaseWrites++;
+        if (metrics != null) {
+            phaseChunks.set((z >> 4) * CHUNKS_X + (x >> 4));
+        }
+    }
+
+    private void fillRow(int minX, int maxX, int y, int z, CampusBlock block) {
+        if (z < clipMinZ || z >= clipMaxZ) return;
+        minX = Math.max(minX, clipMinX);
+        maxX = Math.min(maxX, clipMaxX);
+        if (minX >= maxX) return;
+        sink.fillRow(minX, maxX, y, z, block);
+        phaseWrites += maxX - minX;
+        if (metrics != null) {
+            int row = (z >> 4) * CHUNKS_X;
+            phaseChunks.set(row + (minX >> 4), row + ((maxX - 1) >> 4) + 1);
+        }
     }
 
     // --- Accessors for spawn/NPC placement ---
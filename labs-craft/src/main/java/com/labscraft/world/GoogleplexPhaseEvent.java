@@ -0,0 +1,26 @@
+package com.labscraft.world;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** JFR event for one generator phase over one tile; recorded only while a flight recording runs. */
+@Name("labscraft.GoogleplexPhase")
+@Label("Googleplex Phase")
+@Category({"LabsCraft", "Googleplex"})
+@Description("One build phase of the Googleplex generator, run over one tile")
+class GoogleplexPhaseEvent extends Event {
+    @Label("Phase")
+    String phase;
+
+    @Label("Tile X")
+    int tileX;
+
+    @Label("Tile Z")
+    int tileZ;
+
+    @Label("Blocks")
+    long blocks;
+}
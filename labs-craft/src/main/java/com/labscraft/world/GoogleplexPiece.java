@@ -0,0 +1,78 @@
+package com.labscraft.world;
+
+import com.labscraft.LabsCraft;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.structure.StructureContext;
+import net.minecraft.structure.StructurePiece;
+import net.minecraft.util.math.BlockBox;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.random.Random;
+import net.minecraft.world.StructureWorldAccess;
+import net.minecraft.world.gen.StructureAccessor;
+import net.minecraft.world.gen.chunk.ChunkGenerator;
+
+/**
+ * One blueprint tile of the Googleplex structure. Generating it stamps the tile's voxels that
+ * fall inside the chunk being generated.
+ */
+public class GoogleplexPiece extends StructurePiece {
+    private final BlockPos origin;
+    private final int tile;
+
+    GoogleplexPiece(BlockPos origin, int tile, TileOrder order) {
+        super(ModStructures.GOOGLEPLEX_PIECE, 0, tileBox(origin, tile, order));
+        this.origin = origin;
+        this.tile = tile;
+    }
+
+    public GoogleplexPiece(StructureContext context, NbtCompound nbt) {
+        super(ModStructures.GOOGLEPLEX_PIECE, nbt);
+        this.origin = new BlockPos(nbt.getInt("OriginX"), nbt.getInt("OriginY"), nbt.getInt("OriginZ"));
+        this.tile = nbt.getInt("Tile");
+    }
+
+    private static BlockBox tileBox(BlockPos origin, int tile, TileOrder order) {
+        int minX = origin.getX() + order.tileMinX(tile);
+        int minY = origin.getY() + order.getMinY();
+        int minZ = origin.getZ() + order.tileMinZ(tile);
+        return new BlockBox(minX, minY, minZ,
+            minX + order.tileWidth(tile) - 1, minY + order.getSizeY() - 1, minZ + order.tileDepth(tile) - 1);
+    }
+
+    @Override
+    protected void writeNbt(StructureContext context, NbtCompound nbt) {
+        nbt.putInt("OriginX", origin.getX());
+        nbt.putInt("OriginY", origin.getY());
+        nbt.putInt("OriginZ", origin.getZ());
+        nbt.putInt("Tile", tile);
+    }
+
+    @Override
+    public void generate(StructureWorldAccess world, StructureAccessor structureAccessor, ChunkGenerator chunkGenerator,
+                         Random random, BlockBox chunkBox, ChunkPos chunkPos, BlockPos pivot) {
+        // Preparation starts with the server (GoogleplexBlueprints.register); only a chunk generated
+        // before it finishes, as on the first launch with a new seed, waits for it here
+        GoogleplexBlueprint blueprint = GoogleplexBlueprints.getIfReady(world.getSeed());
+        if (blueprint == null) {
+            LabsCraft.LOGGER.debug("Googleplex blueprint not ready while generating chunk {}, waiting for it", chunkPos);
+            blueprint = GoogleplexBlueprints.prepare(world.getSeed()).join();
+        }
+        TileOrder order = blueprint.getOrder();
+        int end = order.tileStart(tile + 1);
+
+        GoogleplexBlueprint.Stamper stamper = blueprint.stamper(order.tileStart(tile));
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+        while (stamper.next() && stamper.index() < end) {
+            pos.set(origin.getX() + stamper.x(), origin.getY() + stamper.y(), origin.getZ() + stamper.z());
+            if (!chunkBox.contains(pos)) continue;
+
+            BlockState state = stamper.state();
+            if (world.getBlockState(pos) != state) {
+                world.setBlockState(pos, state, Block.NOTIFY_LISTENERS);
+            }
+        }
+    }
+}
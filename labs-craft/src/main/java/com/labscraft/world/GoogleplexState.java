@@ -2,16 +2,40 @@ package com.labscraft.world;
 
 import com.labscraft.LabsCraft;
 import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtList;
 import net.minecraft.registry.RegistryWrapper;
 import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.PersistentState;
 import net.minecraft.world.World;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 public class GoogleplexState extends PersistentState {
     private static final String DATA_NAME = LabsCraft.MOD_ID + "_googleplex";
 
     private boolean generated = false;
 
+    // In-progress build, saved every tick so a restart resumes instead of rebuilding
+    @Nullable
+    private BlockPos buildOrigin = null;
+    private int buildCursor = 0;
+    private boolean buildSetsSpawn = false;
+    // Blueprint the cursor indexes into; a different blueprint means the cursor is meaningless
+    private String buildBlueprint = "";
+    // Whether the build's undo capture is over; until then the snapshot on disk is not this build's
+    private boolean buildSnapshotTaken = false;
+
+    // Room registry of every finished campus in this world, consulted per player per tick
+    private final List<CampusRoomIndex> campuses = new ArrayList<>();
+    // Mined-out TPU mine wall positions per campus corner, until MineRegenerator puts them back
+    private final Map<BlockPos, MineDepletion> depletedMines = new LinkedHashMap<>();
+
     public GoogleplexState() {
     }
 
@@ -29,12 +53,100 @@ public class GoogleplexState extends PersistentState {
     public static GoogleplexState createFromNbt(NbtCompound nbt, RegistryWrapper.WrapperLookup registryLookup) {
         GoogleplexState state = new GoogleplexState();
         state.generated = nbt.getBoolean("generated");
+        if (nbt.contains("pendingBuild")) {
+            NbtCompound build = nbt.getCompound("pendingBuild");
+            state.buildOrigin = new BlockPos(build.getInt("x"), build.getInt("y"), build.getInt("z"));
+            state.buildCursor = build.getInt("cursor");
+            state.buildSetsSpawn = build.getBoolean("setsSpawn");
+            state.buildBlueprint = build.getString("blueprint");
+            // Saved before the flag existed: stamping only ever began once the capture was done
+            state.buildSnapshotTaken = build.contains("snapshotTaken")
+                    ? build.getBoolean("snapshotTaken") : state.buildCursor > 0;
+        }
+        NbtList campuses = nbt.getList("campuses", NbtElement.COMPOUND_TYPE);
+        for (int i = 0; i < campuses.size(); i++) {
+            state.campuses.add(readCampus(campuses.getCompound(i)));
+        }
+        NbtList mines = nbt.getList("depletedMines", NbtElement.COMPOUND_TYPE);
+        for (int i = 0; i < mines.size(); i++) {
+            NbtCompound mine = mines.getCompound(i);
+            BlockPos origin = new BlockPos(mine.getInt("x"), mine.getInt("y"), mine.getInt("z"));
+            state.depletedMines.put(origin, MineDepletion.fromWords(mine.getLongArray("fresh"),
+                mine.getLongArray("ready")));
+        }
         return state;
     }
 
+    private static CampusRoomIndex readCampus(NbtCompound campus) {
+        List<CampusRoomIndex.Room> rooms = new ArrayList<>();
+        NbtList roomList = campus.getList("rooms", NbtElement.COMPOUND_TYPE);
+        for (int i = 0; i < roomList.size(); i++) {
+            NbtCompound room = roomList.getCompound(i);
+            rooms.add(new CampusRoomIndex.Room(room.getString("id"),
+                room.getInt("minX"), room.getInt("minZ"), room.getInt("maxX"), room.getInt("maxZ")));
+        }
+        BlockPos origin = new BlockPos(campus.getInt("x"), campus.getInt("y"), campus.getInt("z"));
+        return new CampusRoomIndex(origin, campus.getInt("sizeX"), campus.getInt("sizeZ"),
+            campus.getInt("minY"), campus.getInt("sizeY"), rooms);
+    }
+
+    private static NbtCompound writeCampus(CampusRoomIndex index) {
+        NbtCompound campus = new NbtCompound();
+        campus.putInt("x", index.getOrigin().getX());
+        campus.putInt("y", index.getOrigin().getY());
+        campus.putInt("z", index.getOrigin().getZ());
+        campus.putInt("sizeX", index.getSizeX());
+        campus.putInt("sizeZ", index.getSizeZ());
+        campus.putInt("minY", index.getMinY());
+        campus.putInt("sizeY", index.getSizeY());
+        NbtList rooms = new NbtList();
+        for (CampusRoomIndex.Room room : index.getRooms()) {
+            NbtCompound entry = new NbtCompound();
+            entry.putString("id", room.id());
+            entry.putInt("minX", room.minX());
+            entry.putInt("minZ", room.minZ());
+            entry.putInt("maxX", room.maxX());
+            entry.putInt("maxZ", room.maxZ());
+            rooms.add(entry);
+        }
+        campus.put("rooms", rooms);
+        return campus;
+    }
+
     @Override
     public NbtCompound writeNbt(NbtCompound nbt, RegistryWrapper.WrapperLookup registryLookup) {
         nbt.putBoolean("generated", generated);
+        if (buildOrigin != null) {
+            NbtCompound build = new NbtCompound();
+            build.putInt("x", buildOrigin.getX());
+            build.putInt("y", buildOrigin.getY());
+            build.putInt("z", buildOrigin.getZ());
+            build.putInt("cursor", buildCursor);
+            build.putBoolean("setsSpawn", buildSetsSpawn);
+            build.putString("blueprint", buildBlueprint);
+            build.putBoolean("snapshotTaken", buildSnapshotTaken);
+            nbt.put("pendingBuild", build);
+        }
+        if (!campuses.isEmpty()) {
+            NbtList list = new NbtList();
+            for (CampusRoomIndex campus : campuses) {
+                list.add(writeCampus(campus));
+            }
+            nbt.put("campuses", list);
+        }
+        if (!depletedMines.isEmpty()) {
+            NbtList list = new NbtList();
+            for (Map.Entry<BlockPos, MineDepletion> entry : depletedMines.entrySet()) {
+                NbtCompound mine = new NbtCompound();
+                mine.putInt("x", entry.getKey().getX());
+                mine.putInt("y", entry.getKey().getY());
+                mine.putInt("z", entry.getKey().getZ());
+                mine.putLongArray("fresh", entry.getValue().freshWords());
+                mine.putLongArray("ready", entry.getValue().readyWords());
+                list.add(mine);
+            }
+            nbt.put("depletedMines", list);
+        }
         return nbt;
     }
 
@@ -46,4 +158,131 @@ public class GoogleplexState extends PersistentState {
         this.generated = generated;
         markDirty();
     }
+
+    // --- Pending build tracking ---
+
+    public boolean hasPendingBuild() {
+        return buildOrigin != null;
+    }
+
+    @Nullable
+    public BlockPos getBuildOrigin() {
+        return buildOrigin;
+    }
+
+    public int getBuildCursor() {
+        return buildCursor;
+    }
+
+    public boolean buildSetsSpawn() {
+        return buildSetsSpawn;
+    }
+
+    public String getBuildBlueprint() {
+        return buildBlueprint;
+    }
+
+    /** True once the pending build's undo capture is over, committed or given up on. */
+    public boolean isBuildSnapshotTaken() {
+        return buildSnapshotTaken;
+    }
+
+    public void startBuild(BlockPos origin, boolean setsSpawn, String blueprint) {
+        this.buildOrigin = origin;
+        this.buildCursor = 0;
+        this.buildSetsSpawn = setsSpawn;
+        this.buildBlueprint = blueprint;
+        this.buildSnapshotTaken = false;
+        markDirty();
+    }
+
+    /**
+     * Restarts the pending build from its first voxel against another blueprint. Its undo capture
+     * is kept: it was taken before anything was stamped, so it still holds what the build replaced.
+     */
+    public void restartBuild(String blueprint) {
+        this.buildCursor = 0;
+        this.buildBlueprint = blueprint;
+        markDirty();
+    }
+
+    public void setBuildSnapshotTaken() {
+        this.buildSnapshotTaken = true;
+        markDirty();
+    }
+
+    public void setBuildCursor(int cursor) {
+        this.buildCursor = cursor;
+        markDirty();
+    }
+
+    /** Forgets the pending build without marking the campus as generated. */
+    public void cancelBuild() {
+        this.buildOrigin = null;
+        this.buildCursor = 0;
+        this.buildSetsSpawn = false;
+        this.buildBlueprint = "";
+        this.buildSnapshotTaken = false;
+        markDirty();
+    }
+
+    /** Clears the pending build and marks the campus as generated. */
+    public void finishBuild() {
+        this.buildOrigin = null;
+        this.buildCursor = 0;
+        this.buildSetsSpawn = false;
+        this.buildBlueprint = "";
+        this.buildSnapshotTaken = false;
+        this.generated = true;
+        markDirty();
+    }
+
+    // --- Room registry ---
+
+    /** Registers a finished campus, replacing any campus registered at the same corner. */
+    public void addCampus(CampusRoomIndex campus) {
+        campuses.removeIf(existing -> existing.getOrigin().equals(campus.getOrigin()));
+        campuses.add(campus);
+        depletedMines.remove(campus.getOrigin());
+        markDirty();
+    }
+
+    /** Forgets the campus at {@code origin}, e.g. once its build is undone. */
+    public void removeCampus(BlockPos origin) {
+        boolean removed = campuses.removeIf(campus -> campus.getOrigin().equals(origin));
+        if (depletedMines.remove(origin) != null || removed) {
+            markDirty();
+        }
+    }
+
+    public List<CampusRoomIndex> getCampuses() {
+        return List.copyOf(campuses);
+    }
+
+    /**
+     * Room id at a position: a {@link CampusRoom} id, {@link CampusRoom#HALLWAY} elsewhere inside
+     * a campus, or null outside every campus.
+     */
+    @Nullable
+    public String roomAt(BlockPos pos) {
+        for (int i = campuses.size() - 1; i >= 0; i--) {
+            String room = campuses.get(i).roomAt(pos.getX(), pos.getY(), pos.getZ());
+            if (room != null) return room;
+        }
+        return null;
+    }
+
+    // --- TPU mine regrowth ---
+
+    /** Records that a wall position of the campus at {@code origin}'s mine was mined out. */
+    void markMined(BlockPos origin, int index) {
+        if (depletedMines.computeIfAbsent(origin, key -> new MineDepletion()).mark(index)) {
+            markDirty();
+        }
+    }
+
+    /** Depletion by campus corner, for {@link MineRegenerator} to refill; call markDirty after changing it. */
+    Map<BlockPos, MineDepletion> getDepletedMines() {
+        return depletedMines;
+    }
 }
@@ -0,0 +1,104 @@
+package com.labscraft.world;
+
+import com.mojang.serialization.MapCodec;
+import net.minecraft.registry.RegistryKeys;
+import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.server.world.ServerChunkManager;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.structure.StructureStart;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.Heightmap;
+import net.minecraft.world.chunk.ChunkStatus;
+import net.minecraft.world.gen.chunk.ChunkGenerator;
+import net.minecraft.world.gen.chunk.FlatChunkGenerator;
+import net.minecraft.world.gen.chunk.placement.StructurePlacement;
+import net.minecraft.world.gen.structure.Structure;
+import net.minecraft.world.gen.structure.StructureType;
+
+import java.util.Optional;
+
+/**
+ * The Googleplex as a worldgen structure. On the LabsCraft superflat preset the campus is stamped
+ * from the cached blueprint while its chunks generate, one {@link GoogleplexPiece} per chunk, on
+ * vanilla's worldgen threads. Chunks nobody visits are never built.
+ */
+public class GoogleplexStructure extends Structure {
+    public static final MapCodec<GoogleplexStructure> CODEC = createCodec(GoogleplexStructure::new);
+
+    // The campus corner sits this far from the start chunk's corner, on a chunk boundary, so each
+    // blueprint tile is exactly one chunk and the whole campus stays within vanilla's 8-chunk
+    // structure reference radius of the start chunk
+    static final int START_CHUNK_OFFSET = 96;
+
+    public GoogleplexStructure(Config config) {
+        super(config);
+    }
+
+    /**
+     * True if the campus generates with this generator's chunks. Noise generators place every
+     * registered structure set, so the campus is kept to flat worlds, which place only the sets
+     * their preset lists in {@code structure_overrides}: the LabsCraft preset lists it, vanilla's don't.
+     */
+    public static boolean generatesWith(ChunkGenerator generator) {
+        return generator instanceof FlatChunkGenerator;
+    }
+
+    /** Campus corner for a start chunk, with the floor at {@code groundY}. */
+    public static BlockPos campusOrigin(ChunkPos start, int groundY) {
+        return new BlockPos(start.getStartX() - START_CHUNK_OFFSET, groundY, start.getStartZ() - START_CHUNK_OFFSET);
+    }
+
+    /**
+     * Returns the campus corner if this world generates the campus with its chunks, or empty if
+     * the campus has to be built by a {@link GoogleplexBuildJob}. A world whose start chunk was
+     * generated before the structure existed has no campus start and is built the old way.
+     */
+    public static Optional<BlockPos> findCampusOrigin(ServerWorld world) {
+        if (!world.getServer().getSaveProperties().getGeneratorOptions().shouldGenerateStructures()
+                || !generatesWith(world.getChunkManager().getChunkGenerator())) {
+            return Optional.empty();
+        }
+
+        Optional<RegistryEntry.Reference<Structure>> structure = world.getRegistryManager()
+            .getOrThrow(RegistryKeys.STRUCTURE).getOptional(ModStructures.GOOGLEPLEX);
+        if (structure.isEmpty()) return Optional.empty();
+
+        ServerChunkManager chunkManager = world.getChunkManager();
+        for (StructurePlacement placement : chunkManager.getStructurePlacementCalculator().getPlacements(structure.get())) {
+            if (placement instanceof FixedStructurePlacement fixed) {
+                ChunkPos start = fixed.getChunkPos();
+                StructureStart campus = world.getChunk(start.x, start.z, ChunkStatus.STRUCTURE_STARTS)
+                    .getStructureStart(structure.get().value());
+                if (campus == null || !campus.hasChildren()) return Optional.empty();
+
+                int groundY = chunkManager.getChunkGenerator().getHeightOnGround(start.getCenterX(), start.getCenterZ(),
+                    Heightmap.Type.WORLD_SURFACE_WG, world, chunkManager.getNoiseConfig());
+                return Optional.of(campusOrigin(start, groundY));
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    protected Optional<StructurePosition> getStructurePosition(Context context) {
+        if (!generatesWith(context.chunkGenerator())) return Optional.empty();
+
+        ChunkPos start = context.chunkPos();
+        int groundY = context.chunkGenerator().getHeightOnGround(start.getCenterX(), start.getCenterZ(),
+            Heightmap.Type.WORLD_SURFACE_WG, context.world(), context.noiseConfig());
+        BlockPos origin = campusOrigin(start, groundY);
+        TileOrder order = GoogleplexGenerator.blueprintOrder();
+
+        return Optional.of(new StructurePosition(start.getCenterAtY(groundY), pieces -> {
+            for (int tile = 0; tile < order.tileCount(); tile++) {
+                pieces.addPiece(new GoogleplexPiece(origin, tile, order));
+            }
+        }));
+    }
+
+    @Override
+    public StructureType<?> getType() {
+        return ModStructures.GOOGLEPLEX_TYPE;
+    }
+}
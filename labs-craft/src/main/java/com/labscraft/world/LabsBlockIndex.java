@@ -0,0 +1,120 @@
+package com.labscraft.world;
+
+import com.labscraft.LabsCraft;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.registry.Registries;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.WorldChunk;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Where the LabsCraft blocks are in each loaded chunk of a world, so asking what is near a player
+ * is a few bucket lookups rather than a block scan. A chunk is indexed when it loads, reading only
+ * the sections whose palette holds a LabsCraft block, and kept current afterwards by every block
+ * change in it ({@code WorldChunkMixin}); writers that bypass block changes, like
+ * {@link SectionBlockWriter}, re-index the chunks they touched.
+ */
+public final class LabsBlockIndex {
+    /** A LabsCraft block and where it is. */
+    public record Entry(BlockPos pos, Block block) {
+    }
+
+    private static final Map<RegistryKey<World>, LabsBlockIndex> INDEXES = new HashMap<>();
+    // Identity set of every block in the labscraft namespace, filled once blocks are registered
+    private static Set<Block> labsBlocks = Set.of();
+
+    private final ChunkPositionIndex<Block> positions = new ChunkPositionIndex<>();
+
+    private LabsBlockIndex() {
+    }
+
+    /** Call after the mod's blocks are registered. */
+    public static void register() {
+        Set<Block> blocks = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Block block : Registries.BLOCK) {
+            if (Registries.BLOCK.getId(block).getNamespace().equals(LabsCraft.MOD_ID)) {
+                blocks.add(block);
+            }
+        }
+        labsBlocks = blocks;
+
+        ServerChunkEvents.CHUNK_LOAD.register((world, chunk) -> get(world).reindex(chunk));
+        ServerChunkEvents.CHUNK_UNLOAD.register((world, chunk) ->
+                get(world).positions.clearChunk(chunk.getPos().x, chunk.getPos().z));
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> INDEXES.clear());
+    }
+
+    public static LabsBlockIndex get(ServerWorld world) {
+        return INDEXES.computeIfAbsent(world.getRegistryKey(), key -> new LabsBlockIndex());
+    }
+
+    public static boolean isLabsBlock(BlockState state) {
+        return labsBlocks.contains(state.getBlock());
+    }
+
+    /** Records one block change in a loaded chunk. Runs for every change, so anything else returns at once. */
+    public static void onBlockChanged(ServerWorld world, BlockPos pos, BlockState previous, BlockState state) {
+        boolean was = isLabsBlock(previous);
+        boolean is = isLabsBlock(state);
+        if (!was && !is) return;
+
+        LabsBlockIndex index = get(world);
+        if (is) {
+            index.positions.put(pos.getX(), pos.getY(), pos.getZ(), state.getBlock());
+        } else {
+            index.positions.remove(pos.getX(), pos.getY(), pos.getZ());
+        }
+    }
+
+    /** Rebuilds a chunk's entries from its sections. */
+    public void reindex(WorldChunk chunk) {
+        ChunkPos pos = chunk.getPos();
+        positions.clearChunk(pos.x, pos.z);
+
+        ChunkSection[] sections = chunk.getSectionArray();
+        for (int i = 0; i < sections.length; i++) {
+            ChunkSection section = sections[i];
+            // The palette tells whether a section holds any at all, so most are skipped unread
+            if (section.isEmpty() || !section.hasAny(LabsBlockIndex::isLabsBlock)) continue;
+
+            int baseY = ChunkSectionPos.getBlockCoord(chunk.sectionIndexToCoord(i));
+            for (int y = 0; y < 16; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        BlockState state = section.getBlockState(x, y, z);
+                        if (isLabsBlock(state)) {
+                            positions.put(pos.getStartX() + x, baseY + y, pos.getStartZ() + z, state.getBlock());
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /** LabsCraft blocks at most {@code horizontal} blocks away on x and z and {@code vertical} on y, nearest first. */
+    public List<Entry> near(BlockPos center, int horizontal, int vertical) {
+        List<Entry> found = new ArrayList<>();
+        positions.forEachWithin(center.getX() - horizontal, center.getY() - vertical, center.getZ() - horizontal,
+                center.getX() + horizontal, center.getY() + vertical, center.getZ() + horizontal,
+                (x, y, z, block) -> found.add(new Entry(new BlockPos(x, y, z), block)));
+        found.sort(Comparator.comparingDouble(entry -> entry.pos().getSquaredDistance(center)));
+        return found;
+    }
+}
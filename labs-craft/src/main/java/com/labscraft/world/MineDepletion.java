@@ -0,0 +1,83 @@
+package com.labscraft.world;
+
+import java.util.BitSet;
+
+/**
+ * Mined-out positions of one campus's mine walls, one bit per {@link MineWalls} index. A freshly
+ * mined position first waits a regrowth period out as "fresh"; {@link #promote()} then makes every
+ * waiting position "ready", and only ready positions are refilled. Calling promote once per period
+ * means a block grows back between one and two periods after it was mined, without a timestamp
+ * per position.
+ */
+final class MineDepletion {
+    private final BitSet fresh;
+    private final BitSet ready;
+    // Where the round-robin walk over ready positions continues; not saved
+    private int cursor;
+
+    MineDepletion() {
+        this(new BitSet(), new BitSet());
+    }
+
+    private MineDepletion(BitSet fresh, BitSet ready) {
+        this.fresh = fresh;
+        this.ready = ready;
+    }
+
+    /** Restores depletion saved with {@link #freshWords()} and {@link #readyWords()}. */
+    static MineDepletion fromWords(long[] fresh, long[] ready) {
+        return new MineDepletion(BitSet.valueOf(fresh), BitSet.valueOf(ready));
+    }
+
+    /** Records a mined position. Returns false if it was already waiting to regrow. */
+    boolean mark(int index) {
+        if (fresh.get(index) || ready.get(index)) return false;
+        fresh.set(index);
+        return true;
+    }
+
+    /** Makes every position mined before now eligible for refilling. */
+    void promote() {
+        ready.or(fresh);
+        fresh.clear();
+    }
+
+    /**
+     * Next ready position after the one last returned, wrapping around, or -1 if none is ready.
+     * Positions that can't be refilled yet are left set and come round again after the rest.
+     */
+    int nextReady() {
+        int index = ready.nextSetBit(cursor);
+        if (index < 0) index = ready.nextSetBit(0);
+        cursor = index + 1;
+        return index;
+    }
+
+    /** Forgets a position, once it has been refilled or no longer needs to be. */
+    void clear(int index) {
+        fresh.clear(index);
+        ready.clear(index);
+    }
+
+    boolean isEmpty() {
+        return fresh.isEmpty() && ready.isEmpty();
+    }
+
+    /** Positions that may be refilled now. */
+    int readyCount() {
+        return ready.cardinality();
+    }
+
+    /** Positions waiting to regrow, ready or not. */
+    int count() {
+        return fresh.cardinality() + ready.cardinality();
+    }
+
+    long[] freshWords() {
+        return fresh.toLongArray();
+    }
+
+    long[] readyWords() {
+        return ready.toLongArray();
+    }
+}
@@ -0,0 +1,135 @@
+package com.labscraft.world;
+
+import com.labscraft.LabsCraft;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Grows mined-out TPU mine walls back, a few blocks per server tick, so a busy server's mine never
+ * needs a campus rebuild. A wall block turning to air, whether a player, an explosion, a piston or a
+ * command removed it, marks its bit in the campus's {@link MineDepletion}; once it has waited out
+ * {@link #REGROW_TICKS} the block it was built with is put back, provided the position is still
+ * empty and nobody is standing in it. The walls are never rebuilt in bulk.
+ */
+public class MineRegenerator {
+    // Mined blocks regrow between one and two of these periods later
+    static final int REGROW_TICKS = 1200;
+    // Refills go through the regular block update path, so keep them to a trickle
+    private static final int BLOCKS_PER_TICK = 4;
+    private static final long NANOS_PER_TICK = 1_000_000L;
+    // Ready positions looked at per mine per tick, refilled or not (unloaded, occupied)
+    private static final int CHECKS_PER_TICK = 64;
+
+    private static final BuildBudget budget = new BuildBudget(BLOCKS_PER_TICK, NANOS_PER_TICK);
+
+    public static void register() {
+        ServerTickEvents.END_SERVER_TICK.register(MineRegenerator::tick);
+    }
+
+    /** Records one block change in a loaded chunk. Runs for every change, so anything but air replacing a block returns at once. */
+    public static void onBlockChanged(ServerWorld world, BlockPos pos, BlockState previous, BlockState current) {
+        if (previous.isAir() || !current.isAir()) return;
+
+        GoogleplexState state = GoogleplexState.get(world);
+        for (CampusRoomIndex campus : state.getCampuses()) {
+            if (!campus.contains(pos.getX(), pos.getY(), pos.getZ())) continue;
+            MineWalls walls = MineWalls.of(campus);
+            if (walls == null) continue;
+
+            BlockPos origin = campus.getOrigin();
+            int index = walls.indexOf(pos.getX() - origin.getX(), pos.getY() - origin.getY(),
+                    pos.getZ() - origin.getZ());
+            if (index >= 0) {
+                state.markMined(origin, index);
+                return;
+            }
+        }
+    }
+
+    private static void tick(MinecraftServer server) {
+        budget.begin();
+        for (ServerWorld world : server.getWorlds()) {
+            GoogleplexState state = GoogleplexState.get(world);
+            if (state.getDepletedMines().isEmpty()) continue;
+
+            boolean promote = world.getTime() % REGROW_TICKS == 0;
+            long oreSeed = GoogleplexGenerator.oreSeed(world.getSeed());
+            Iterator<Map.Entry<BlockPos, MineDepletion>> it = state.getDepletedMines().entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<BlockPos, MineDepletion> entry = it.next();
+                MineDepletion depletion = entry.getValue();
+                if (promote) {
+                    depletion.promote();
+                    state.markDirty();
+                }
+                MineWalls walls = wallsOf(state, entry.getKey());
+                if (walls == null) {
+                    it.remove();
+                    state.markDirty();
+                    continue;
+                }
+                if (!budget.isExhausted() && regrow(world, entry.getKey(), walls, depletion, oreSeed)) {
+                    state.markDirty();
+                }
+                if (depletion.isEmpty()) it.remove();
+            }
+        }
+    }
+
+    /** Refills ready positions of one mine while the budget lasts. Returns true if any bit was cleared. */
+    private static boolean regrow(ServerWorld world, BlockPos origin, MineWalls walls, MineDepletion depletion,
+                                  long oreSeed) {
+        boolean changed = false;
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+        // The walk visits each ready position once per lap and refills only shrink the set, so
+        // capping the checks at the count it starts with never looks at a position twice a tick
+        int checks = Math.min(CHECKS_PER_TICK, depletion.readyCount());
+        for (int i = 0; i < checks; i++) {
+            int index = depletion.nextReady();
+            if (index < 0) break;
+
+            int x = walls.x(index);
+            int y = walls.y(index);
+            int z = walls.z(index);
+            pos.set(origin.getX() + x, origin.getY() + y, origin.getZ() + z);
+            // Stays marked until a player is nearby to have the chunk loaded
+            if (!world.isChunkLoaded(pos.getX() >> 4, pos.getZ() >> 4)) continue;
+
+            // Something was put there since, or the rock came back some other way; leave it be
+            if (!world.getBlockState(pos).isAir()) {
+                depletion.clear(index);
+                changed = true;
+                continue;
+            }
+            // Don't bury whoever is standing in the hole; try again once they've moved
+            if (!world.getEntitiesByClass(LivingEntity.class, new Box(pos), entity -> true).isEmpty()) continue;
+
+            if (!budget.tryConsume()) break;
+            world.setBlockState(pos, GoogleplexGenerator.mineWallBlock(oreSeed, x, y, z).state(), Block.NOTIFY_ALL);
+            depletion.clear(index);
+            changed = true;
+        }
+        if (changed && depletion.isEmpty()) {
+            LabsCraft.LOGGER.debug("TPU mine of the campus at {} has fully regrown", origin);
+        }
+        return changed;
+    }
+
+    @Nullable
+    private static MineWalls wallsOf(GoogleplexState state, BlockPos origin) {
+        for (CampusRoomIndex campus : state.getCampuses()) {
+            if (campus.getOrigin().equals(origin)) return MineWalls.of(campus);
+        }
+        return null;
+    }
+}
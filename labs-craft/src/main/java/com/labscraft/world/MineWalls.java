@@ -0,0 +1,86 @@
+package com.labscraft.world;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The ring of ore-bearing rock around the TPU mine pit, numbered so that a depleted position is one
+ * bit. Walls run one block outside the pit rectangle (corners excluded, as the generator lays them)
+ * from the campus floor down to the pit bottom; positions are campus-relative.
+ *
+ * Indices go layer by layer from the top, and within a layer along the north, south, west and east
+ * walls in turn.
+ */
+final class MineWalls {
+    private final int minX;
+    private final int minZ;
+    private final int maxX;
+    private final int maxZ;
+    private final int topY;
+    private final int depth;
+    private final int width;
+    private final int length;
+    private final int perimeter;
+
+    /** Walls around the pit columns {@code minX <= x < maxX}, {@code minZ <= z < maxZ}, {@code depth} layers from {@code topY} down. */
+    MineWalls(int minX, int minZ, int maxX, int maxZ, int topY, int depth) {
+        if (maxX <= minX || maxZ <= minZ || depth <= 0) {
+            throw new IllegalArgumentException("Empty mine: " + minX + ".." + maxX + " x " + minZ + ".." + maxZ
+                + ", depth " + depth);
+        }
+        this.minX = minX;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxZ = maxZ;
+        this.topY = topY;
+        this.depth = depth;
+        this.width = maxX - minX;
+        this.length = maxZ - minZ;
+        this.perimeter = 2 * width + 2 * length;
+    }
+
+    /** Walls of the mine a campus was built with, or null if it has no mine. */
+    @Nullable
+    static MineWalls of(CampusRoomIndex campus) {
+        CampusRoomIndex.Room mine = campus.getRoom(CampusRoom.TPU_MINE.getId());
+        if (mine == null) return null;
+        return new MineWalls(mine.minX(), mine.minZ(), mine.maxX(), mine.maxZ(),
+            GoogleplexGenerator.MINE_TOP_Y, GoogleplexGenerator.MINE_DEPTH);
+    }
+
+    int size() {
+        return perimeter * depth;
+    }
+
+    /** Index of a wall position, or -1 if the position is not part of the walls. */
+    int indexOf(int x, int y, int z) {
+        int layer = topY - y;
+        if (layer < 0 || layer >= depth) return -1;
+
+        int along;
+        if (x >= minX && x < maxX && (z == minZ - 1 || z == maxZ)) {
+            along = (z == maxZ ? width : 0) + x - minX;
+        } else if (z >= minZ && z < maxZ && (x == minX - 1 || x == maxX)) {
+            along = 2 * width + (x == maxX ? length : 0) + z - minZ;
+        } else {
+            return -1;
+        }
+        return layer * perimeter + along;
+    }
+
+    int x(int index) {
+        int along = index % perimeter;
+        if (along < 2 * width) return minX + along % width;
+        return along < 2 * width + length ? minX - 1 : maxX;
+    }
+
+    int y(int index) {
+        return topY - index / perimeter;
+    }
+
+    int z(int index) {
+        int along = index % perimeter;
+        if (along < width) return minZ - 1;
+        if (along < 2 * width) return maxZ;
+        return minZ + (along - 2 * width) % length;
+    }
+}
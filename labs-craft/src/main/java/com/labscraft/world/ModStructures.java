@@ -0,0 +1,41 @@
+package com.labscraft.world;
+
+import com.labscraft.LabsCraft;
+import net.minecraft.registry.Registries;
+import net.minecraft.registry.Registry;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.registry.RegistryKeys;
+import net.minecraft.structure.StructurePieceType;
+import net.minecraft.util.Identifier;
+import net.minecraft.world.gen.chunk.placement.StructurePlacementType;
+import net.minecraft.world.gen.structure.Structure;
+import net.minecraft.world.gen.structure.StructureType;
+
+public class ModStructures {
+    public static final RegistryKey<Structure> GOOGLEPLEX = RegistryKey.of(
+        RegistryKeys.STRUCTURE,
+        Identifier.of(LabsCraft.MOD_ID, "googleplex")
+    );
+
+    public static final StructureType<GoogleplexStructure> GOOGLEPLEX_TYPE = Registry.register(
+        Registries.STRUCTURE_TYPE,
+        Identifier.of(LabsCraft.MOD_ID, "googleplex"),
+        () -> GoogleplexStructure.CODEC
+    );
+
+    public static final StructurePieceType GOOGLEPLEX_PIECE = Registry.register(
+        Registries.STRUCTURE_PIECE,
+        Identifier.of(LabsCraft.MOD_ID, "googleplex_tile"),
+        GoogleplexPiece::new
+    );
+
+    public static final StructurePlacementType<FixedStructurePlacement> FIXED_PLACEMENT = Registry.register(
+        Registries.STRUCTURE_PLACEMENT,
+        Identifier.of(LabsCraft.MOD_ID, "fixed"),
+        () -> FixedStructurePlacement.CODEC
+    );
+
+    public static void registerStructures() {
+        LabsCraft.LOGGER.info("Registering structures for " + LabsCraft.MOD_ID);
+    }
+}
@@ -0,0 +1,123 @@
+package com.labscraft.world;
+
+import com.labscraft.LabsCraft;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Builds the deferred parts of campuses as their chunks load. A chunk with {@link PendingCampusEdits}
+ * is queued when it loads and stamped from the blueprint on a following server tick, through a
+ * {@link SectionBlockWriter}, so it is relit and sent to players once. What the chunk held before is
+ * added to its build's {@link BuildSnapshot} first, so {@code /labscraft undo} reverts it as well.
+ */
+public class PendingCampusApplier {
+    // A chunk overlaps at most four partial tiles, so a few chunks per tick stay cheap
+    private static final int CHUNKS_PER_TICK = 4;
+
+    private record LoadedChunk(ServerWorld world, long chunk) {
+    }
+
+    private static final Deque<LoadedChunk> loaded = new ArrayDeque<>();
+
+    public static void register() {
+        ServerChunkEvents.CHUNK_LOAD.register((world, chunk) -> {
+            long key = chunk.getPos().toLong();
+            if (PendingCampusEdits.get(world).hasPending(key)) {
+                loaded.addLast(new LoadedChunk(world, key));
+            }
+        });
+        ServerTickEvents.END_SERVER_TICK.register(server -> tick());
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> loaded.clear());
+    }
+
+    private static void tick() {
+        for (int applied = 0; applied < CHUNKS_PER_TICK && !loaded.isEmpty(); applied++) {
+            LoadedChunk next = loaded.peekFirst();
+            CompletableFuture<GoogleplexBlueprint> blueprint = GoogleplexBlueprints.prepare(next.world().getSeed());
+            if (!blueprint.isDone()) return;
+            // Its build is still saving the undo snapshot, which this chunk's capture is added to
+            if (awaitsSnapshot(next)) return;
+            loaded.pollFirst();
+
+            // Entries stay put if the chunk unloaded again or the blueprint failed; its next load retries
+            if (blueprint.isCompletedExceptionally()) continue;
+            if (!next.world().isChunkLoaded(ChunkPos.getPackedX(next.chunk()), ChunkPos.getPackedZ(next.chunk()))) {
+                continue;
+            }
+            apply(next.world(), blueprint.join(), next.chunk());
+        }
+    }
+
+    private static void apply(ServerWorld world, GoogleplexBlueprint blueprint, long chunk) {
+        List<BlockPos> origins = PendingCampusEdits.get(world).take(chunk);
+        if (origins.isEmpty()) return;
+
+        int chunkX = ChunkPos.getPackedX(chunk);
+        int chunkZ = ChunkPos.getPackedZ(chunk);
+        SectionBlockWriter writer = new SectionBlockWriter(world);
+        for (BlockPos origin : origins) {
+            snapshotChunk(world, origin, chunk);
+            stampChunk(writer, blueprint, origin, chunkX, chunkZ);
+        }
+        writer.flush();
+        LabsCraft.LOGGER.debug("Built deferred Googleplex chunk [{}, {}] ({} blocks changed)",
+                chunkX, chunkZ, writer.getBlocksWritten());
+    }
+
+    private static boolean awaitsSnapshot(LoadedChunk chunk) {
+        GoogleplexState state = GoogleplexState.get(chunk.world());
+        return state.hasPendingBuild() && !state.isBuildSnapshotTaken()
+                && PendingCampusEdits.get(chunk.world()).chunksOf(state.getBuildOrigin()).contains(chunk.chunk());
+    }
+
+    private static void snapshotChunk(ServerWorld world, BlockPos origin, long chunk) {
+        try {
+            BuildSnapshot.captureChunk(world, origin, chunk);
+        } catch (IOException e) {
+            // Undoing without this chunk would leave part of the campus standing; refuse instead
+            LabsCraft.LOGGER.warn("Could not snapshot deferred chunk [{}, {}]; the build at {} can no longer be undone",
+                    ChunkPos.getPackedX(chunk), ChunkPos.getPackedZ(chunk), origin, e);
+            try {
+                BuildSnapshot.delete(world);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /** Writes the blueprint voxels of the campus at {@code origin} that fall inside one chunk. */
+    static void stampChunk(SectionBlockWriter writer, GoogleplexBlueprint blueprint, BlockPos origin,
+                           int chunkX, int chunkZ) {
+        TileOrder order = blueprint.getOrder();
+        int minX = Math.max(chunkX * 16 - origin.getX(), 0);
+        int minZ = Math.max(chunkZ * 16 - origin.getZ(), 0);
+        int maxX = Math.min(chunkX * 16 + 15 - origin.getX(), order.getSizeX() - 1);
+        int maxZ = Math.min(chunkZ * 16 + 15 - origin.getZ(), order.getSizeZ() - 1);
+        if (minX > maxX || minZ > maxZ) return;
+
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+        for (int tz = minZ / TileOrder.TILE; tz <= maxZ / TileOrder.TILE; tz++) {
+            for (int tx = minX / TileOrder.TILE; tx <= maxX / TileOrder.TILE; tx++) {
+                int tile = order.tileOf(tx * TileOrder.TILE, tz * TileOrder.TILE);
+                int end = order.tileStart(tile + 1);
+                GoogleplexBlueprint.Stamper stamper = blueprint.stamper(order.tileStart(tile));
+                while (stamper.next() && stamper.index() < end) {
+                    int x = stamper.x();
+                    int z = stamper.z();
+                    if (x < minX || x > maxX || z < minZ || z > maxZ) continue;
+                    writer.setBlockState(pos.set(origin.getX() + x, origin.getY() + stamper.y(), origin.getZ() + z),
+                            stamper.state());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.labscraft.world;
+
+import com.labscraft.LabsCraft;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.longs.LongSets;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtList;
+import net.minecraft.registry.RegistryWrapper;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.PersistentState;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Chunks of a build that were not loaded when it ran, saved with the world until they next load.
+ * An entry is only a campus corner and a chunk position: the blocks themselves come from the cached
+ * blueprint when {@link PendingCampusApplier} stamps the chunk, so a deferred chunk costs 8 bytes
+ * on disk however much of the campus it holds.
+ */
+public class PendingCampusEdits extends PersistentState {
+    private static final String DATA_NAME = LabsCraft.MOD_ID + "_pending_campus";
+
+    // Deferred chunks per campus corner, and the corners waiting on each chunk
+    private final Map<BlockPos, LongSet> byCampus = new LinkedHashMap<>();
+    private final Long2ObjectMap<List<BlockPos>> byChunk = new Long2ObjectOpenHashMap<>();
+
+    public PendingCampusEdits() {
+    }
+
+    private static final PersistentState.Type<PendingCampusEdits> TYPE = new PersistentState.Type<>(
+        PendingCampusEdits::new,
+        PendingCampusEdits::createFromNbt,
+        null
+    );
+
+    public static PendingCampusEdits get(ServerWorld world) {
+        return world.getPersistentStateManager().getOrCreate(TYPE, DATA_NAME);
+    }
+
+    public static PendingCampusEdits createFromNbt(NbtCompound nbt, RegistryWrapper.WrapperLookup registryLookup) {
+        PendingCampusEdits edits = new PendingCampusEdits();
+        NbtList campuses = nbt.getList("campuses", NbtElement.COMPOUND_TYPE);
+        for (int i = 0; i < campuses.size(); i++) {
+            NbtCompound campus = campuses.getCompound(i);
+            BlockPos origin = new BlockPos(campus.getInt("x"), campus.getInt("y"), campus.getInt("z"));
+            for (long chunk : campus.getLongArray("chunks")) {
+                edits.add(origin, chunk);
+            }
+        }
+        return edits;
+    }
+
+    @Override
+    public NbtCompound writeNbt(NbtCompound nbt, RegistryWrapper.WrapperLookup registryLookup) {
+        NbtList campuses = new NbtList();
+        for (Map.Entry<BlockPos, LongSet> entry : byCampus.entrySet()) {
+            NbtCompound campus = new NbtCompound();
+            campus.putInt("x", entry.getKey().getX());
+            campus.putInt("y", entry.getKey().getY());
+            campus.putInt("z", entry.getKey().getZ());
+            campus.putLongArray("chunks", entry.getValue().toLongArray());
+            campuses.add(campus);
+        }
+        nbt.put("campuses", campuses);
+        return nbt;
+    }
+
+    /** Leaves a chunk of the campus at {@code origin} to be stamped when it next loads. */
+    public void defer(BlockPos origin, long chunk) {
+        if (add(origin, chunk)) {
+            markDirty();
+        }
+    }
+
+    public boolean hasPending(long chunk) {
+        return byChunk.containsKey(chunk);
+    }
+
+    /** Campus corners waiting on a chunk, and forgets them; empty if none are. */
+    public List<BlockPos> take(long chunk) {
+        List<BlockPos> origins = byChunk.remove(chunk);
+        if (origins == null) return List.of();
+        for (BlockPos origin : origins) {
+            LongSet chunks = byCampus.get(origin);
+            chunks.remove(chunk);
+            if (chunks.isEmpty()) byCampus.remove(origin);
+        }
+        markDirty();
+        return origins;
+    }
+
+    /** Chunks still deferred for the campus at {@code origin}. */
+    public LongSet chunksOf(BlockPos origin) {
+        LongSet chunks = byCampus.get(origin);
+        return chunks == null ? LongSets.EMPTY_SET : LongSets.unmodifiable(chunks);
+    }
+
+    /** Drops every deferred chunk of a campus, e.g. when its build is cancelled or undone. Returns how many. */
+    public int removeCampus(BlockPos origin) {
+        LongSet chunks = byCampus.remove(origin);
+        if (chunks == null) return 0;
+        for (LongIterator it = chunks.iterator(); it.hasNext(); ) {
+            long chunk = it.nextLong();
+            List<BlockPos> origins = byChunk.get(chunk);
+            origins.remove(origin);
+            if (origins.isEmpty()) byChunk.remove(chunk);
+        }
+        markDirty();
+        return chunks.size();
+    }
+
+    public int getPendingChunkCount() {
+        return byChunk.size();
+    }
+
+    private boolean add(BlockPos origin, long chunk) {
+        if (!byCampus.computeIfAbsent(origin, key -> new LongOpenHashSet()).add(chunk)) return false;
+        byChunk.computeIfAbsent(chunk, key -> new ArrayList<>(1)).add(origin);
+        return true;
+    }
+}
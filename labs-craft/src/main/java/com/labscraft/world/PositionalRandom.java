@@ -0,0 +1,42 @@
+package com.labscraft.world;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Stateless random numbers keyed by seed and block position, built on the SplitMix64 finalizer.
+ * The same seed and position always give the same value, on any thread and in any order, so
+ * layouts that use it can be computed in parallel and cached.
+ */
+public final class PositionalRandom {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private PositionalRandom() {
+    }
+
+    /** Derives an independent seed for one feature, so features sharing a world seed don't correlate. */
+    public static long split(long seed, String salt) {
+        long h = mix(seed + GOLDEN_GAMMA);
+        for (byte b : salt.getBytes(StandardCharsets.UTF_8)) {
+            h = mix(h + GOLDEN_GAMMA + b);
+        }
+        return h;
+    }
+
+    public static long hash(long seed, int x, int y, int z) {
+        long h = mix(seed + GOLDEN_GAMMA * (x + 1));
+        h = mix(h + GOLDEN_GAMMA * (y + 1));
+        return mix(h + GOLDEN_GAMMA * (z + 1));
+    }
+
+    /** Uniform double in [0, 1) for a position. */
+    public static double nextDouble(long seed, int x, int y, int z) {
+        return (hash(seed, x, y, z) >>> 11) * 0x1.0p-53;
+    }
+
+    // SplitMix64 finalizer
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,62 @@
+package com.labscraft.world;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+import java.util.Arrays;
+
+/**
+ * Run-length packing for blueprint voxel arrays. Each run is one int: the low 10 bits hold
+ * the cell value (0 means "leave untouched", otherwise palette index + 1) and the high
+ * 22 bits hold the run length.
+ */
+final class RunLength {
+    static final int VALUE_BITS = 10;
+    static final int MAX_VALUE = (1 << VALUE_BITS) - 1;
+    static final int MAX_LENGTH = (1 << (32 - VALUE_BITS)) - 1;
+
+    private RunLength() {
+    }
+
+    static int[] encode(short[] cells) {
+        IntArrayList runs = new IntArrayList();
+        int i = 0;
+        while (i < cells.length) {
+            int value = cells[i];
+            if (value < 0 || value > MAX_VALUE) {
+                throw new IllegalArgumentException("Cell value out of range at " + i + ": " + value);
+            }
+            int start = i;
+            while (i < cells.length && cells[i] == value && i - start < MAX_LENGTH) {
+                i++;
+            }
+            runs.add(pack(value, i - start));
+        }
+        return runs.toIntArray();
+    }
+
+    static short[] decode(int[] runs, int volume) {
+        short[] cells = new short[volume];
+        int i = 0;
+        for (int run : runs) {
+            int length = length(run);
+            Arrays.fill(cells, i, i + length, (short) value(run));
+            i += length;
+        }
+        if (i != volume) {
+            throw new IllegalArgumentException("Runs cover " + i + " cells, expected " + volume);
+        }
+        return cells;
+    }
+
+    static int pack(int value, int length) {
+        return length << VALUE_BITS | value;
+    }
+
+    static int value(int run) {
+        return run & MAX_VALUE;
+    }
+
+    static int length(int run) {
+        return run >>> VALUE_BITS;
+    }
+}
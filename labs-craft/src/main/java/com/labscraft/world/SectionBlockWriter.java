@@ -0,0 +1,232 @@
+package com.labscraft.world;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.network.packet.s2c.play.ChunkDataS2CPacket;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerLightingProvider;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.Heightmap;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.WorldChunk;
+
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongPredicate;
+
+/**
+ * Bulk block writer that bypasses {@link ServerWorld#setBlockState} for large builds.
+ *
+ * Blocks are written straight into each chunk's {@link ChunkSection} palette, so no
+ * neighbor updates, per-block light checks or block update packets happen while writing.
+ * Writes that would not change anything (the position already holds the state, or air into an
+ * empty section) are skipped without touching the chunk. {@link #flush()} then recomputes
+ * heightmaps, relights and resends each chunk that actually changed, once.
+ *
+ * Nothing reaches clients block by block: even block entity placements skip the listener
+ * notification that would queue a chunk delta. Players watching a changed chunk get one full chunk
+ * data packet after it is relit, so client traffic scales with chunks touched, not blocks changed.
+ *
+ * A writer created with deferred lighting leaves relighting to {@link #relight}, so a chunk written
+ * over several flushes is lit and resent once, when its caller knows it is finished.
+ */
+public class SectionBlockWriter {
+    private static final Set<Heightmap.Type> HEIGHTMAPS = EnumSet.of(
+        Heightmap.Type.MOTION_BLOCKING,
+        Heightmap.Type.MOTION_BLOCKING_NO_LEAVES,
+        Heightmap.Type.OCEAN_FLOOR,
+        Heightmap.Type.WORLD_SURFACE
+    );
+    // Creates the block entity without neighbor updates or a per-block packet; the chunk resend covers it
+    private static final int SILENT_PLACEMENT = Block.FORCE_STATE;
+
+    private final ServerWorld world;
+    private final boolean deferLighting;
+
+    // Chunks written this batch, in first-touch order
+    private final Long2ObjectMap<WorldChunk> touchedChunks = new Long2ObjectLinkedOpenHashMap<>();
+    // Sections that were empty before this batch wrote to them (light engine needs to know)
+    private final LongSet initiallyEmptySections = new LongOpenHashSet();
+    private final LongSet touchedSections = new LongOpenHashSet();
+    // Block entity states go through the world so their block entities get created
+    private final Map<BlockPos, BlockState> blockEntityStates = new LinkedHashMap<>();
+    // Flushed chunks still waiting for their relight when lighting is deferred
+    private final Long2ObjectMap<WorldChunk> unlitChunks = new Long2ObjectLinkedOpenHashMap<>();
+
+    private WorldChunk cachedChunk;
+    private long cachedChunkKey = Long.MIN_VALUE;
+    private long blocksWritten = 0;
+    private long blocksSkipped = 0;
+    private long chunksResent = 0;
+
+    public SectionBlockWriter(ServerWorld world) {
+        this(world, false);
+    }
+
+    public SectionBlockWriter(ServerWorld world, boolean deferLighting) {
+        this.world = world;
+        this.deferLighting = deferLighting;
+    }
+
+    /** Writes a block, or queues it if it has a block entity. Returns false if the write was skipped. */
+    public boolean setBlockState(BlockPos pos, BlockState state) {
+        int x = pos.getX();
+        int y = pos.getY();
+        int z = pos.getZ();
+        if (world.isOutOfHeightLimit(y)) return false;
+
+        WorldChunk chunk = getChunk(x >> 4, z >> 4);
+        int sectionIndex = chunk.getSectionIndex(y);
+        ChunkSection section = chunk.getSection(sectionIndex);
+
+        // Diff against what is already there; an empty section is all air, so air needs no lookup.
+        // A queued block entity placement is not in the section yet, so it can't be diffed against
+        boolean pending = !blockEntityStates.isEmpty() && blockEntityStates.containsKey(pos);
+        if (!pending && (state.isAir()
+                ? section.isEmpty() || section.getBlockState(x & 15, y & 15, z & 15).isAir()
+                : section.getBlockState(x & 15, y & 15, z & 15) == state)) {
+            blocksSkipped++;
+            return false;
+        }
+
+        touchedChunks.putIfAbsent(ChunkPos.toLong(x >> 4, z >> 4), chunk);
+        long sectionKey = ChunkSectionPos.asLong(x >> 4, y >> 4, z >> 4);
+        if (touchedSections.add(sectionKey) && section.isEmpty()) {
+            initiallyEmptySections.add(sectionKey);
+        }
+
+        if (state.hasBlockEntity()) {
+            blockEntityStates.put(pos.toImmutable(), state);
+            return true;
+        }
+        blockEntityStates.remove(pos);
+
+        BlockState previous = section.setBlockState(x & 15, y & 15, z & 15, state, false);
+        if (previous.hasBlockEntity()) {
+            chunk.removeBlockEntity(pos);
+        }
+        blocksWritten++;
+        return true;
+    }
+
+    /**
+     * Finishes the batch: places block entity blocks, rebuilds heightmaps, then relights
+     * and resends every touched chunk once, or queues it for {@link #relight} if lighting is
+     * deferred. The writer can be reused afterwards.
+     */
+    public void flush() {
+        ServerLightingProvider lightingProvider = world.getChunkManager().getLightingProvider();
+
+        for (long sectionKey : touchedSections) {
+            ChunkSectionPos sectionPos = ChunkSectionPos.from(sectionKey);
+            WorldChunk chunk = touchedChunks.get(ChunkPos.toLong(sectionPos.getSectionX(), sectionPos.getSectionZ()));
+            boolean empty = chunk.getSection(chunk.sectionCoordToIndex(sectionPos.getSectionY())).isEmpty();
+            if (empty != initiallyEmptySections.contains(sectionKey)) {
+                lightingProvider.setSectionStatus(sectionPos, empty);
+            }
+        }
+
+        for (WorldChunk chunk : touchedChunks.values()) {
+            Heightmap.populateHeightmaps(chunk, HEIGHTMAPS);
+            chunk.markNeedsSaving();
+        }
+
+        // Few enough of these (consoles, crafting table) that the regular path is fine
+        for (Map.Entry<BlockPos, BlockState> entry : blockEntityStates.entrySet()) {
+            world.setBlockState(entry.getKey(), entry.getValue(), SILENT_PLACEMENT);
+            blocksWritten++;
+        }
+
+        // Section writes skip the block change hook, so the LabsCraft block index rescans these chunks
+        LabsBlockIndex index = LabsBlockIndex.get(world);
+        for (WorldChunk chunk : touchedChunks.values()) {
+            index.reindex(chunk);
+        }
+
+        if (deferLighting) {
+            unlitChunks.putAll(touchedChunks);
+        } else {
+            for (WorldChunk chunk : touchedChunks.values()) {
+                relightChunk(chunk);
+            }
+        }
+
+        touchedChunks.clear();
+        touchedSections.clear();
+        initiallyEmptySections.clear();
+        blockEntityStates.clear();
+        cachedChunk = null;
+        cachedChunkKey = Long.MIN_VALUE;
+    }
+
+    /** Relights and resends the flushed chunks {@code ready} accepts, by chunk key. */
+    public void relight(LongPredicate ready) {
+        var it = unlitChunks.long2ObjectEntrySet().iterator();
+        while (it.hasNext()) {
+            Long2ObjectMap.Entry<WorldChunk> entry = it.next();
+            if (ready.test(entry.getLongKey())) {
+                relightChunk(entry.getValue());
+                it.remove();
+            }
+        }
+    }
+
+    /** Relights and resends every flushed chunk still waiting for it. */
+    public void relightAll() {
+        relight(key -> true);
+    }
+
+    public long getBlocksWritten() {
+        return blocksWritten;
+    }
+
+    /** Writes dropped because the world already matched. */
+    public long getBlocksSkipped() {
+        return blocksSkipped;
+    }
+
+    /** Chunk data packets sent to players, one per watched chunk each time it is relit. */
+    public long getChunksResent() {
+        return chunksResent;
+    }
+
+    private WorldChunk getChunk(int chunkX, int chunkZ) {
+        long key = ChunkPos.toLong(chunkX, chunkZ);
+        if (key != cachedChunkKey) {
+            cachedChunk = touchedChunks.get(key);
+            if (cachedChunk == null) {
+                cachedChunk = world.getChunk(chunkX, chunkZ);
+            }
+            cachedChunkKey = key;
+        }
+        return cachedChunk;
+    }
+
+    private void relightChunk(WorldChunk chunk) {
+        world.getChunkManager().getLightingProvider().light(chunk, false)
+            .thenRunAsync(() -> resendChunk(chunk), world.getServer());
+    }
+
+    private void resendChunk(WorldChunk chunk) {
+        List<ServerPlayerEntity> watchers = world.getChunkManager().chunkLoadingManager
+            .getPlayersWatchingChunk(chunk.getPos(), false);
+        // Nobody nearby: the chunk goes out with its new contents whenever a player loads it
+        if (watchers.isEmpty()) return;
+
+        ChunkDataS2CPacket packet = new ChunkDataS2CPacket(chunk, world.getLightingProvider(), null, null);
+        for (ServerPlayerEntity player : watchers) {
+            player.networkHandler.sendPacket(packet);
+        }
+        chunksResent++;
+    }
+}
@@ -0,0 +1,197 @@
+package com.labscraft.world;
+
+/**
+ * Voxel numbering used by Googleplex blueprints. The build box is cut into 16x16 columns ("tiles")
+ * measured from its corner; voxels are numbered tile by tile, and inside a tile by y, then z, then x.
+ * Consecutive voxels therefore stay within at most four world chunks, and floors, ceilings and
+ * cleared air come out as long runs.
+ */
+public final class TileOrder {
+    public static final int TILE = 16;
+
+    private final int sizeX;
+    private final int sizeY;
+    private final int sizeZ;
+    private final int minY;
+    private final int tilesX;
+    private final int tilesZ;
+    // First voxel index of each tile, with the total volume as the last entry
+    private final int[] tileStart;
+
+    public TileOrder(int sizeX, int minY, int sizeY, int sizeZ) {
+        if (sizeX <= 0 || sizeY <= 0 || sizeZ <= 0) {
+            throw new IllegalArgumentException("Empty tile order: " + sizeX + "x" + sizeY + "x" + sizeZ);
+        }
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        this.minY = minY;
+        this.tilesX = (sizeX + TILE - 1) / TILE;
+        this.tilesZ = (sizeZ + TILE - 1) / TILE;
+
+        this.tileStart = new int[tilesX * tilesZ + 1];
+        long total = 0;
+        for (int t = 0; t < tilesX * tilesZ; t++) {
+            tileStart[t] = (int) total;
+            total += (long) tileWidth(t) * tileDepth(t) * sizeY;
+        }
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Tile order too large: " + total + " voxels");
+        }
+        tileStart[tilesX * tilesZ] = (int) total;
+    }
+
+    public int getSizeX() {
+        return sizeX;
+    }
+
+    public int getSizeY() {
+        return sizeY;
+    }
+
+    public int getSizeZ() {
+        return sizeZ;
+    }
+
+    public int getMinY() {
+        return minY;
+    }
+
+    public int volume() {
+        return tileStart[tileStart.length - 1];
+    }
+
+    public int tileCount() {
+        return tilesX * tilesZ;
+    }
+
+    public boolean contains(int x, int y, int z) {
+        return x >= 0 && x < sizeX && z >= 0 && z < sizeZ && y >= minY && y < minY + sizeY;
+    }
+
+    /** Returns the voxel index of a position relative to the box corner. */
+    public int index(int x, int y, int z) {
+        int tile = tileOf(x, z);
+        int lx = x % TILE;
+        int lz = z % TILE;
+        return tileStart[tile] + ((y - minY) * tileDepth(tile) + lz) * tileWidth(tile) + lx;
+    }
+
+    /** Tile holding the column at x, z relative to the box corner. */
+    public int tileOf(int x, int z) {
+        return (z / TILE) * tilesX + x / TILE;
+    }
+
+    /** Tile holding a voxel index below {@link #volume()}. */
+    public int tileAt(int index) {
+        // Binary search for the last tile starting at or before the index
+        int lo = 0;
+        int hi = tileCount() - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (tileStart[mid] <= index) lo = mid;
+            else hi = mid - 1;
+        }
+        return lo;
+    }
+
+    /** Returns a walker positioned on the given voxel index. */
+    public Walker walker(int index) {
+        Walker walker = new Walker();
+        walker.seek(index);
+        return walker;
+    }
+
+    /** First voxel index of a tile; {@code tileStart(tileCount())} is the volume. */
+    public int tileStart(int tile) {
+        return tileStart[tile];
+    }
+
+    public int tileMinX(int tile) {
+        return (tile % tilesX) * TILE;
+    }
+
+    public int tileMinZ(int tile) {
+        return (tile / tilesX) * TILE;
+    }
+
+    /** Width of a tile along x; tiles on the far edge may be narrower than {@link #TILE}. */
+    public int tileWidth(int tile) {
+        return Math.min(TILE, sizeX - tileMinX(tile));
+    }
+
+    /** Depth of a tile along z; tiles on the far edge may be shallower than {@link #TILE}. */
+    public int tileDepth(int tile) {
+        return Math.min(TILE, sizeZ - tileMinZ(tile));
+    }
+
+    /** Steps through voxels in index order without recomputing the tile for every voxel. */
+    public final class Walker {
+        private int index;
+        private int tile;
+        private int width;
+        private int depth;
+        private int baseX;
+        private int baseZ;
+        private int lx;
+        private int ly;
+        private int lz;
+
+        public void seek(int target) {
+            if (target < 0 || target > volume()) {
+                throw new IndexOutOfBoundsException("Voxel index " + target + " outside 0.." + volume());
+            }
+            index = target;
+            if (target == volume()) return;
+
+            enterTile(tileAt(target));
+
+            int local = target - tileStart[tile];
+            lx = local % width;
+            lz = (local / width) % depth;
+            ly = local / (width * depth);
+        }
+
+        /** Moves to the next voxel. Returns false once past the last voxel. */
+        public boolean advance() {
+            index++;
+            if (index >= volume()) return false;
+
+            if (++lx < width) return true;
+            lx = 0;
+            if (++lz < depth) return true;
+            lz = 0;
+            if (++ly < sizeY) return true;
+            ly = 0;
+            enterTile(tile + 1);
+            return true;
+        }
+
+        public int index() {
+            return index;
+        }
+
+        public int x() {
+            return baseX + lx;
+        }
+
+        public int y() {
+            return minY + ly;
+        }
+
+        public int z() {
+            return baseZ + lz;
+        }
+
+        private void enterTile(int next) {
+            tile = next;
+            width = tileWidth(next);
+            depth = tileDepth(next);
+            baseX = tileMinX(next);
+            baseZ = tileMinZ(next);
+            lx = 0;
+            ly = 0;
+            lz = 0;
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.labscraft.world;
+
+import com.labscraft.LabsCraft;
+import com.labscraft.entity.ModEntities;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.entity.Entity;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.text.Text;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.ChunkPos;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Reverts a dimension's latest build from its {@link BuildSnapshot}, a slice per tick through the
+ * same {@link SectionBlockWriter} builds use: first the snapshot itself, then the side file of each
+ * deferred chunk stamped since. Only positions inside the build box are written back, and the Josh
+ * a finished build spawned is removed. The snapshot is deleted once fully restored.
+ */
+public class UndoJob implements BuildTask {
+    private final int id;
+    private final ServerWorld world;
+    private final Path file;
+    private final BuildSnapshot.Reader reader;
+    // Deferred chunks captured when they were stamped, restored after the snapshot itself; listed
+    // on the first tick, once no more of them can be stamped
+    private final Deque<Path> chunkFiles = new ArrayDeque<>();
+    // The reader sections currently come from: the snapshot's, then each chunk file's in turn
+    private BuildSnapshot.Reader current;
+    private final SectionBlockWriter writer;
+    // Set up on the first tick, like chunkFiles
+    @Nullable
+    private ChunkPreloader chunks;
+    private final BuildProgress progress = new BuildProgress();
+    @Nullable
+    private final ServerCommandSource requester;
+
+    @Nullable
+    private BuildSnapshot.Section section;
+    // Next cell of the current section, in y, z, x order like the section's own storage
+    private int cell;
+    private int sectionsDone;
+
+    /** Opens the world's snapshot; throws if there is none or it can't be read. */
+    UndoJob(int id, ServerWorld world, @Nullable ServerCommandSource requester) throws IOException {
+        this.id = id;
+        this.world = world;
+        this.file = BuildSnapshot.file(world);
+        this.reader = new BuildSnapshot.Reader(file);
+        this.current = reader;
+        this.writer = new SectionBlockWriter(world, true);
+        this.requester = requester;
+    }
+
+    @Override
+    public boolean tick(BuildBudget budget) {
+        if (chunks == null) {
+            try {
+                begin();
+            } catch (IOException e) {
+                finish();
+                LabsCraft.LOGGER.error("Could not list the deferred chunks of the undo snapshot {}", file, e);
+                if (requester != null) {
+                    requester.sendError(Text.literal("Undo failed: " + e.getMessage()));
+                }
+                return true;
+            }
+        }
+        chunks.acquire();
+        if (!progress.isStarted()) {
+            if (!chunks.isLoaded()) return false;
+            progress.start(0, reader.getSectionCount()
+                    + chunkFiles.size() * BuildSnapshot.sectionsPerChunk(world, reader.getOrigin(), reader.getOrder()));
+        }
+
+        BlockPos origin = reader.getOrigin();
+        TileOrder order = reader.getOrder();
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+        long restored = 0;
+        boolean done = false;
+
+        try {
+            restore:
+            while (true) {
+                if (section == null) {
+                    section = current.next();
+                    cell = 0;
+                    if (section == null) {
+                        if (!openNextChunkFile()) {
+                            done = true;
+                            break;
+                        }
+                        continue;
+                    }
+                }
+
+                while (cell < 4096) {
+                    int lx = cell & 15;
+                    int lz = (cell >> 4) & 15;
+                    int ly = cell >> 8;
+                    pos.set(section.pos().getMinX() + lx, section.pos().getMinY() + ly, section.pos().getMinZ() + lz);
+                    // Sections stick out of the box; only what the build could have written goes back
+                    if (!order.contains(pos.getX() - origin.getX(), pos.getY() - origin.getY(), pos.getZ() - origin.getZ())) {
+                        cell++;
+                        continue;
+                    }
+                    if (!budget.tryConsume()) break restore;
+                    writer.setBlockState(pos, section.states().get(lx, ly, lz));
+                    cell++;
+                    restored++;
+                }
+                section = null;
+                sectionsDone++;
+            }
+        } catch (IOException e) {
+            writer.flush();
+            writer.relightAll();
+            finish();
+            LabsCraft.LOGGER.error("Could not read the undo snapshot {}", file, e);
+            if (requester != null) {
+                requester.sendError(Text.literal("Undo failed: " + e.getMessage()));
+            }
+            return true;
+        }
+
+        writer.flush();
+        progress.advance(sectionsDone, restored);
+        if (!done) {
+            // Snapshot sections come chunk by chunk, so every chunk but the current one is finished
+            long current = ChunkPos.toLong(section.pos().getSectionX(), section.pos().getSectionZ());
+            writer.relight(key -> key != current);
+            return false;
+        }
+
+        writer.relightAll();
+        removeJosh(origin, order);
+        GoogleplexState.get(world).removeCampus(origin);
+        finish();
+        try {
+            BuildSnapshot.delete(world);
+        } catch (IOException e) {
+            LabsCraft.LOGGER.warn("Could not delete the undo snapshot {}", file, e);
+        }
+
+        LabsCraft.LOGGER.info("Reverted the Googleplex build at {} ({} blocks changed, {} chunks resent)", origin,
+                writer.getBlocksWritten(), writer.getChunksResent());
+        if (requester != null) {
+            requester.sendFeedback(() -> Text.literal("Googleplex build at " + origin.toShortString() + " undone."), true);
+        }
+        return true;
+    }
+
+    // Stops the build's deferred chunks, then takes stock of what is left to restore. Chunks stamped
+    // until now have their side file; the rest never will, so there is nothing to load them for
+    private void begin() throws IOException {
+        BlockPos origin = reader.getOrigin();
+        TileOrder order = reader.getOrder();
+        PendingCampusEdits pending = PendingCampusEdits.get(world);
+        LongSet untouched = new LongOpenHashSet(pending.chunksOf(origin));
+        // Deferred parts of the build must not appear after it is undone
+        pending.removeCampus(origin);
+
+        chunks = new ChunkPreloader(world, origin.getX(), origin.getZ(),
+                origin.getX() + order.getSizeX() - 1, origin.getZ() + order.getSizeZ() - 1,
+                chunk -> !untouched.contains(chunk));
+        chunkFiles.addAll(BuildSnapshot.chunkFiles(world));
+    }
+
+    @Override
+    public void cancel() {
+        // The snapshot stays, so a later undo can still finish the job
+        writer.relightAll();
+        finish();
+        LabsCraft.LOGGER.info("Undo #{} at {} cancelled after {} sections", id, reader.getOrigin(), sectionsDone);
+    }
+
+    // Moves on to the next chunk file; returns false once there are none left
+    private boolean openNextChunkFile() throws IOException {
+        if (current != reader) current.close();
+        current = reader;
+        Path next = chunkFiles.poll();
+        if (next == null) return false;
+
+        current = new BuildSnapshot.Reader(next);
+        if (!current.getOrigin().equals(reader.getOrigin())) {
+            throw new IOException("Chunk snapshot " + next.getFileName() + " is of the build at "
+                    + current.getOrigin().toShortString());
+        }
+        return true;
+    }
+
+    private void removeJosh(BlockPos origin, TileOrder order) {
+        Box box = Box.enclosing(origin.add(0, order.getMinY(), 0),
+                origin.add(order.getSizeX(), order.getMinY() + order.getSizeY(), order.getSizeZ()));
+        for (Entity josh : world.getEntitiesByType(ModEntities.JOSH_WOODWARD, box, entity -> true)) {
+            josh.discard();
+        }
+    }
+
+    private void finish() {
+        if (chunks != null) chunks.release();
+        try {
+            if (current != reader) current.close();
+            reader.close();
+        } catch (IOException e) {
+            LabsCraft.LOGGER.warn("Could not close the undo snapshot {}", file, e);
+        }
+    }
+
+    @Override
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public String getKind() {
+        return "undo";
+    }
+
+    @Override
+    public ServerWorld getWorld() {
+        return world;
+    }
+
+    @Override
+    public BlockPos getOrigin() {
+        return reader.getOrigin();
+    }
+
+    @Override
+    public String getRequesterName() {
+        return requester != null ? requester.getName() : "server";
+    }
+
+    @Override
+    public String describeStatus() {
+        if (chunks == null) return "waiting to start";
+        if (!progress.isStarted()) {
+            return "loading chunks (" + chunks.getLoadedCount() + "/" + chunks.getChunkCount() + ")";
+        }
+        return "restoring, " + progress.summary();
+    }
+}
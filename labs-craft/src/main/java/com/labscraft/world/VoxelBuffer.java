@@ -0,0 +1,143 @@
+package com.labscraft.world;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Last-writer-wins voxel grid that build phases compose into. Overlapping phases simply replace
+ * a cell in memory, so however often the generator paints a position, the world sees one write.
+ *
+ * Cells use the same order as a {@link TileOrder} tile (y, then z, then x), so a buffer covering a
+ * tile can be run-length encoded as is. A cell holds 0 if nothing was written, otherwise its
+ * palette index + 1.
+ */
+final class VoxelBuffer<T> implements BlockSink<T> {
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int sizeX;
+    private final int sizeY;
+    private final int sizeZ;
+    private final short[] cells;
+
+    private final List<T> palette = new ArrayList<>();
+    private final Reference2IntOpenHashMap<T> paletteIds = new Reference2IntOpenHashMap<>();
+
+    private int writes;
+    private int cellsWritten;
+
+    VoxelBuffer(int minX, int minY, int minZ, int sizeX, int sizeY, int sizeZ) {
+        if (sizeX <= 0 || sizeY <= 0 || sizeZ <= 0) {
+            throw new IllegalArgumentException("Empty voxel buffer: " + sizeX + "x" + sizeY + "x" + sizeZ);
+        }
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        this.cells = new short[sizeX * sizeY * sizeZ];
+        paletteIds.defaultReturnValue(-1);
+    }
+
+    boolean containsColumn(int x, int z) {
+        return x >= minX && x < minX + sizeX && z >= minZ && z < minZ + sizeZ;
+    }
+
+    /** Records a write, replacing whatever an earlier write left in the cell. */
+    @Override
+    public void setBlock(int x, int y, int z, T value) {
+        if (!containsColumn(x, z) || y < minY || y >= minY + sizeY) {
+            throw new IllegalArgumentException("Write at " + x + "," + y + "," + z + " is outside the buffer");
+        }
+
+        int index = ((y - minY) * sizeZ + (z - minZ)) * sizeX + (x - minX);
+        if (cells[index] == 0) cellsWritten++;
+        cells[index] = cellOf(value);
+        writes++;
+    }
+
+    /** Rows run along x in memory, so a whole row is one palette lookup and one array fill. */
+    @Override
+    public void fillRow(int fromX, int toX, int y, int z, T value) {
+        if (fromX >= toX) return;
+        if (!containsColumn(fromX, z) || !containsColumn(toX - 1, z) || y < minY || y >= minY + sizeY) {
+            throw new IllegalArgumentException("Row " + fromX + ".." + (toX - 1) + " at y=" + y + ", z=" + z
+                + " is outside the buffer");
+        }
+
+        int start = ((y - minY) * sizeZ + (z - minZ)) * sizeX + (fromX - minX);
+        int end = start + (toX - fromX);
+        for (int i = start; i < end; i++) {
+            if (cells[i] == 0) cellsWritten++;
+        }
+        Arrays.fill(cells, start, end, cellOf(value));
+        writes += toX - fromX;
+    }
+
+    // Palette index + 1 of a value, adding it to the palette on first use
+    private short cellOf(T value) {
+        int id = paletteIds.getInt(value);
+        if (id < 0) {
+            id = palette.size();
+            if (id >= RunLength.MAX_VALUE) {
+                throw new IllegalStateException("Voxel buffer palette exceeds " + RunLength.MAX_VALUE + " values");
+            }
+            palette.add(value);
+            paletteIds.put(value, id);
+        }
+        return (short) (id + 1);
+    }
+
+    /** Value left in a cell, or null if it was never written. */
+    T get(int x, int y, int z) {
+        int cell = cells[((y - minY) * sizeZ + (z - minZ)) * sizeX + (x - minX)];
+        return cell == 0 ? null : palette.get(cell - 1);
+    }
+
+    short[] cells() {
+        return cells;
+    }
+
+    List<T> palette() {
+        return Collections.unmodifiableList(palette);
+    }
+
+    int getMinX() {
+        return minX;
+    }
+
+    int getMinY() {
+        return minY;
+    }
+
+    int getMinZ() {
+        return minZ;
+    }
+
+    int getSizeX() {
+        return sizeX;
+    }
+
+    int getSizeY() {
+        return sizeY;
+    }
+
+    int getSizeZ() {
+        return sizeZ;
+    }
+
+    /** Writes the phases issued, including ones later painted over. */
+    int getWrites() {
+        return writes;
+    }
+
+    /** Distinct cells written; this is what reaches the world. */
+    int getCellsWritten() {
+        return cellsWritten;
+    }
+}
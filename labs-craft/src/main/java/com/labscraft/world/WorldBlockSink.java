@@ -0,0 +1,37 @@
+package com.labscraft.world;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.util.math.BlockPos;
+
+/**
+ * Sink into the live world: positions are offset by the origin and written through a
+ * {@link SectionBlockWriter}, so nothing is visible to players until {@link #flush()}.
+ */
+public class WorldBlockSink implements BlockSink<BlockState> {
+    private final SectionBlockWriter writer;
+    private final BlockPos origin;
+    private final BlockPos.Mutable pos = new BlockPos.Mutable();
+
+    public WorldBlockSink(SectionBlockWriter writer, BlockPos origin) {
+        this.writer = writer;
+        this.origin = origin;
+    }
+
+    @Override
+    public void setBlock(int x, int y, int z, BlockState block) {
+        write(x, y, z, block);
+    }
+
+    /** Like {@link #setBlock}, but returns false if the world already held the block. */
+    public boolean write(int x, int y, int z, BlockState block) {
+        return writer.setBlockState(pos.set(origin.getX() + x, origin.getY() + y, origin.getZ() + z), block);
+    }
+
+    public void flush() {
+        writer.flush();
+    }
+
+    public SectionBlockWriter getWriter() {
+        return writer;
+    }
+}
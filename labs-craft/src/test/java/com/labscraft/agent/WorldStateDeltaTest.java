@@ -0,0 +1,150 @@
+package com.labscraft.agent;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests delta encoding of world states against hand-built JSON in the collector's shape.
+ */
+class WorldStateDeltaTest {
+
+    private static JsonObject state(int health, long timestamp, int lastSpoke) {
+        JsonObject state = new JsonObject();
+        state.addProperty("timestamp", timestamp);
+
+        JsonObject player = new JsonObject();
+        player.addProperty("name", "Steve");
+        player.addProperty("health", health);
+        JsonObject position = new JsonObject();
+        position.addProperty("x", 10);
+        position.addProperty("y", 64);
+        position.addProperty("z", -3);
+        player.add("position", position);
+        state.add("player", player);
+
+        JsonObject josh = new JsonObject();
+        josh.addProperty("distance_to_player", 3.5);
+        josh.addProperty("last_spoke_ticks_ago", lastSpoke);
+        state.add("josh", josh);
+
+        state.add("recent_events", new JsonArray());
+        return state;
+    }
+
+    @Test
+    void firstState_isSentInFull() {
+        JsonObject encoded = new WorldStateDelta().encode(state(20, 100, 0), 0);
+
+        assertTrue(encoded.get("full").getAsBoolean());
+        assertEquals(1, encoded.get("seq").getAsInt());
+        assertEquals(20, encoded.getAsJsonObject("player").get("health").getAsInt());
+        assertTrue(encoded.has("josh"));
+    }
+
+    @Test
+    void onlyVolatileChanges_areNotSent() {
+        WorldStateDelta delta = new WorldStateDelta();
+        delta.encode(state(20, 100, 0), 0);
+
+        assertNull(delta.encode(state(20, 101, 20), 1_000));
+    }
+
+    @Test
+    void changedField_isSentAlone() {
+        WorldStateDelta delta = new WorldStateDelta();
+        delta.encode(state(20, 100, 0), 0);
+
+        JsonObject encoded = delta.encode(state(14, 101, 20), 1_000);
+        JsonObject player = encoded.getAsJsonObject("player");
+        assertEquals(14, player.get("health").getAsInt());
+        assertEquals("Steve", player.get("name").getAsString());
+        assertFalse(player.has("position"));
+        assertFalse(encoded.has("full"));
+        assertEquals(1, encoded.get("base").getAsInt());
+        assertEquals(2, encoded.get("seq").getAsInt());
+        // Volatile fields go along once something else is sent
+        assertEquals(20, encoded.getAsJsonObject("josh").get("last_spoke_ticks_ago").getAsInt());
+    }
+
+    @Test
+    void events_forceASend() {
+        WorldStateDelta delta = new WorldStateDelta();
+        delta.encode(state(20, 100, 0), 0);
+
+        JsonObject withChat = state(20, 100, 0);
+        JsonObject chat = new JsonObject();
+        chat.addProperty("type", "chat_message");
+        withChat.getAsJsonArray("recent_events").add(chat);
+
+        JsonObject encoded = delta.encode(withChat, 1_000);
+        assertEquals(1, encoded.getAsJsonArray("recent_events").size());
+        assertEquals("Steve", encoded.getAsJsonObject("player").get("name").getAsString());
+    }
+
+    @Test
+    void idlePlayer_isSentAgainAfterKeepalive() {
+        WorldStateDelta delta = new WorldStateDelta();
+        delta.encode(state(20, 100, 0), 0);
+
+        assertNull(delta.encode(state(20, 100, 0), WorldStateDelta.KEEPALIVE_MS - 1));
+        JsonObject encoded = delta.encode(state(20, 100, 0), WorldStateDelta.KEEPALIVE_MS);
+        assertNotNull(encoded);
+        assertEquals(2, encoded.get("seq").getAsInt());
+    }
+
+    @Test
+    void resync_sendsNextStateInFull() {
+        WorldStateDelta delta = new WorldStateDelta();
+        delta.encode(state(20, 100, 0), 0);
+        delta.resync();
+
+        JsonObject encoded = delta.encode(state(20, 100, 0), 1_000);
+        assertTrue(encoded.get("full").getAsBoolean());
+        assertEquals(2, encoded.get("seq").getAsInt());
+        assertTrue(encoded.getAsJsonObject("player").has("position"));
+    }
+
+    @Test
+    void fieldSetToNull_survivesSerialization() throws IOException {
+        WorldStateDelta delta = new WorldStateDelta();
+        JsonObject holding = state(20, 100, 0);
+        holding.getAsJsonObject("player").addProperty("held_item", "minecraft:stick");
+        delta.encode(holding, 0);
+
+        JsonObject emptyHanded = state(20, 101, 20);
+        emptyHanded.getAsJsonObject("player").add("held_item", null);
+        JsonObject sent = roundTrip(delta.encode(emptyHanded, 1_000));
+
+        JsonObject player = sent.getAsJsonObject("player");
+        assertTrue(player.has("held_item"));
+        assertTrue(player.get("held_item").isJsonNull());
+    }
+
+    @Test
+    void droppedField_isSentAsNull() throws IOException {
+        WorldStateDelta delta = new WorldStateDelta();
+        JsonObject inRoom = state(20, 100, 0);
+        inRoom.getAsJsonObject("player").addProperty("room", "lobby");
+        delta.encode(inRoom, 0);
+
+        JsonObject sent = roundTrip(delta.encode(state(20, 101, 20), 1_000));
+        assertTrue(sent.getAsJsonObject("player").get("room").isJsonNull());
+    }
+
+    // Writes a state the way the bridge puts it on the wire and parses it back
+    private static JsonObject roundTrip(JsonObject state) throws IOException {
+        JsonBodyBuffer body = new JsonBodyBuffer();
+        JsonWriter json = body.begin();
+        JsonBodyBuffer.write(json, state);
+        json.flush();
+        return JsonParser.parseString(body.toString(StandardCharsets.UTF_8)).getAsJsonObject();
+    }
+}
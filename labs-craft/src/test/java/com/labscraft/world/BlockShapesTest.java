@@ -0,0 +1,81 @@
+package com.labscraft.world;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the generator's shape primitives against a voxel buffer, with strings for blocks.
+ */
+class BlockShapesTest {
+
+    private static VoxelBuffer<String> buffer() {
+        return new VoxelBuffer<>(0, 0, 0, 8, 4, 8);
+    }
+
+    @Test
+    void fillBox_coversBoundsMaxExclusive() {
+        VoxelBuffer<String> voxels = buffer();
+        BlockShapes.fillBox(voxels, 1, 0, 2, 4, 2, 5, "stone");
+
+        assertEquals(3 * 2 * 3, voxels.getCellsWritten());
+        assertEquals("stone", voxels.get(1, 0, 2));
+        assertEquals("stone", voxels.get(3, 1, 4));
+        assertNull(voxels.get(4, 1, 4));
+        assertNull(voxels.get(3, 2, 4));
+    }
+
+    @Test
+    void hollowBox_writesEachSideCellOnce() {
+        VoxelBuffer<String> voxels = buffer();
+        BlockShapes.hollowBox(voxels, 0, 0, 0, 5, 2, 4, "wall");
+
+        // Perimeter of a 5x4 rectangle is 14 cells, on 2 layers
+        assertEquals(28, voxels.getCellsWritten());
+        assertEquals(28, voxels.getWrites());
+        assertNull(voxels.get(2, 0, 2));
+        assertEquals("wall", voxels.get(4, 1, 3));
+    }
+
+    @Test
+    void hollowBox_oneWide_isASingleWall() {
+        VoxelBuffer<String> voxels = buffer();
+        BlockShapes.hollowBox(voxels, 2, 0, 0, 3, 1, 6, "wall");
+
+        assertEquals(6, voxels.getWrites());
+        assertEquals(6, voxels.getCellsWritten());
+    }
+
+    @Test
+    void wallAlongX_followsPattern() {
+        VoxelBuffer<String> voxels = buffer();
+        BlockShapes.wallAlongX(voxels, 0, 8, 3, 0, 2, (x, y) -> x % 3 == 0 ? "pillar" : "glass" + y);
+
+        for (int x = 0; x < 8; x++) {
+            assertEquals(x % 3 == 0 ? "pillar" : "glass1", voxels.get(x, 1, 3));
+        }
+        assertEquals(16, voxels.getWrites());
+    }
+
+    @Test
+    void wallAlongZ_matchesWallAlongXTurned() {
+        VoxelBuffer<String> voxels = buffer();
+        BlockShapes.wallAlongZ(voxels, 5, 0, 8, 0, 2, (z, y) -> z % 3 == 0 ? "pillar" : "glass");
+
+        for (int z = 0; z < 8; z++) {
+            assertEquals(z % 3 == 0 ? "pillar" : "glass", voxels.get(5, 0, z));
+        }
+    }
+
+    @Test
+    void floorPattern_paintsOneLayer() {
+        CountingBlockSink<String> counter = new CountingBlockSink<>();
+        BlockShapes.floorPattern(counter, 0, 0, 8, 8, 0, (x, z) -> (x + z) % 8 < 4 ? "white" : "gray");
+
+        assertEquals(64, counter.getWrites());
+        assertEquals(32, counter.getCount("white"));
+        assertEquals(0, counter.getMinY());
+        assertEquals(0, counter.getMaxY());
+        assertEquals(7, counter.getMaxX());
+    }
+}
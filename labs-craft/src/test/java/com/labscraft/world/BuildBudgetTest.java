@@ -0,0 +1,133 @@
+package com.labscraft.world;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the per-tick allowance used by time-sliced Googleplex builds.
+ * A fake clock drives the wall-clock limit so the tests are deterministic.
+ */
+class BuildBudgetTest {
+
+    static class FakeClock {
+        long now = 0;
+
+        long read() { return now; }
+    }
+
+    @Test
+    void blockLimit_stopsAfterMaxBlocks() {
+        BuildBudget budget = new BuildBudget(100, Long.MAX_VALUE / 2, () -> 0L);
+        budget.begin();
+
+        int consumed = 0;
+        while (budget.tryConsume()) consumed++;
+
+        assertEquals(100, consumed);
+        assertTrue(budget.isExhausted());
+    }
+
+    @Test
+    void exhaustedBudget_staysExhaustedUntilNextTick() {
+        BuildBudget budget = new BuildBudget(1, 1_000_000L, () -> 0L);
+        budget.begin();
+
+        assertTrue(budget.tryConsume());
+        assertFalse(budget.tryConsume());
+        assertFalse(budget.tryConsume());
+    }
+
+    @Test
+    void begin_resetsAllowance() {
+        BuildBudget budget = new BuildBudget(10, 1_000_000L, () -> 0L);
+        budget.begin();
+        while (budget.tryConsume()) { }
+
+        budget.begin();
+        assertFalse(budget.isExhausted());
+        assertEquals(0, budget.getBlocksUsed());
+        assertTrue(budget.tryConsume());
+    }
+
+    @Test
+    void timeLimit_stopsOnceDeadlinePasses() {
+        FakeClock clock = new FakeClock();
+        BuildBudget budget = new BuildBudget(1_000_000, 1_000L, clock::read);
+        budget.begin();
+
+        // Spend the first few hundred blocks, then jump past the deadline
+        for (int i = 0; i < 300; i++) assertTrue(budget.tryConsume());
+        clock.now = 2_000L;
+
+        int extra = 0;
+        while (budget.tryConsume()) extra++;
+
+        // The clock is only sampled every 256 blocks, so at most one interval overruns
+        assertTrue(extra < 256, "Budget should stop within one clock-check interval, used " + extra);
+        assertTrue(budget.isExhausted());
+    }
+
+    @Test
+    void timeLimit_alwaysAllowsSomeProgress() {
+        // Even with a deadline already passed, the first interval still runs so builds never stall
+        FakeClock clock = new FakeClock();
+        BuildBudget budget = new BuildBudget(1_000, 0L, clock::read);
+        budget.begin();
+        clock.now = 10L;
+
+        assertTrue(budget.tryConsume());
+    }
+
+    @Test
+    void hasRemaining_claimsNothing() {
+        BuildBudget budget = new BuildBudget(2, Long.MAX_VALUE / 2, () -> 0L);
+        budget.begin();
+
+        for (int i = 0; i < 1_000; i++) assertTrue(budget.hasRemaining());
+        assertEquals(0, budget.getBlocksUsed());
+
+        assertTrue(budget.tryConsume());
+        assertTrue(budget.tryConsume());
+        assertFalse(budget.hasRemaining());
+        assertTrue(budget.isExhausted());
+    }
+
+    @Test
+    void hasRemaining_stopsOnceDeadlinePasses() {
+        FakeClock clock = new FakeClock();
+        BuildBudget budget = new BuildBudget(1_000_000, 1_000L, clock::read);
+        budget.begin();
+        clock.now = 2_000L;
+
+        // No writes at all, yet the clock still ends the tick within one check interval
+        int checks = 0;
+        while (budget.hasRemaining()) checks++;
+        assertTrue(checks < 256, "Budget should stop within one clock-check interval, checked " + checks);
+        assertTrue(budget.isExhausted());
+    }
+
+    @Test
+    void batchConsume_countsTowardBlockLimit() {
+        BuildBudget budget = new BuildBudget(100, Long.MAX_VALUE / 2, () -> 0L);
+        budget.begin();
+
+        int batches = 0;
+        while (budget.tryConsume(64)) batches++;
+
+        assertEquals(2, batches, "The batch that crosses the limit is allowed, the next one is not");
+        assertEquals(128, budget.getBlocksUsed());
+    }
+
+    @Test
+    void batchConsume_checksClockEveryCall() {
+        FakeClock clock = new FakeClock();
+        BuildBudget budget = new BuildBudget(1_000_000, 1_000L, clock::read);
+        budget.begin();
+
+        assertTrue(budget.tryConsume(64));
+        clock.now = 1_000L;
+        assertFalse(budget.tryConsume(64));
+        assertTrue(budget.isExhausted());
+    }
+}
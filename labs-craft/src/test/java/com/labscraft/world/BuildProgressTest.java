@@ -0,0 +1,100 @@
+package com.labscraft.world;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the progress, rate and ETA figures shown by /labscraft build status.
+ * A fake clock drives elapsed time so the tests are deterministic.
+ */
+class BuildProgressTest {
+    private static final long SECOND = 1_000_000_000L;
+
+    static class FakeClock {
+        long now = 0;
+
+        long read() { return now; }
+    }
+
+    @Test
+    void notStarted_reportsNothing() {
+        BuildProgress progress = new BuildProgress(() -> 0L);
+
+        assertFalse(progress.isStarted());
+        assertEquals(0.0, progress.getFraction());
+        assertEquals(0.0, progress.getBlocksPerSecond());
+        assertEquals(-1, progress.getEtaSeconds());
+    }
+
+    @Test
+    void fraction_followsCursor() {
+        BuildProgress progress = new BuildProgress(() -> 0L);
+        progress.start(0, 1000);
+        progress.advance(250, 250);
+
+        assertEquals(0.25, progress.getFraction(), 1e-9);
+    }
+
+    @Test
+    void rate_countsStampedBlocksOverElapsedTime() {
+        FakeClock clock = new FakeClock();
+        BuildProgress progress = new BuildProgress(clock::read);
+        progress.start(0, 100_000);
+
+        clock.now = 2 * SECOND;
+        progress.advance(30_000, 20_000);
+
+        assertEquals(10_000.0, progress.getBlocksPerSecond(), 1e-6);
+        assertEquals(20_000, progress.getBlocks());
+    }
+
+    @Test
+    void eta_extrapolatesCursorSpeed() {
+        FakeClock clock = new FakeClock();
+        BuildProgress progress = new BuildProgress(clock::read);
+        progress.start(0, 1000);
+
+        clock.now = 10 * SECOND;
+        progress.advance(250, 250);
+
+        assertEquals(30, progress.getEtaSeconds());
+    }
+
+    @Test
+    void eta_measuresOnlyThisRunWhenResumed() {
+        FakeClock clock = new FakeClock();
+        BuildProgress progress = new BuildProgress(clock::read);
+        progress.start(500, 1000);
+
+        clock.now = 5 * SECOND;
+        progress.advance(750, 250);
+
+        assertEquals(0.75, progress.getFraction(), 1e-9);
+        assertEquals(5, progress.getEtaSeconds());
+    }
+
+    @Test
+    void eta_unknownUntilCursorMoves() {
+        FakeClock clock = new FakeClock();
+        BuildProgress progress = new BuildProgress(clock::read);
+        progress.start(0, 1000);
+        clock.now = SECOND;
+
+        assertEquals(-1, progress.getEtaSeconds());
+    }
+
+    @Test
+    void summary_showsPercentAndEta() {
+        FakeClock clock = new FakeClock();
+        BuildProgress progress = new BuildProgress(clock::read);
+        progress.start(0, 1000);
+
+        clock.now = 10 * SECOND;
+        progress.advance(500, 500);
+
+        String summary = progress.summary();
+        assertTrue(summary.startsWith("50.0%") || summary.startsWith("50,0%"), summary);
+        assertTrue(summary.endsWith("ETA 10s)"), summary);
+    }
+}
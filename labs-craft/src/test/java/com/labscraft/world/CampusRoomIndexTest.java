@@ -0,0 +1,97 @@
+package com.labscraft.world;
+
+import net.minecraft.util.math.BlockPos;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the campus room registry: grid lookups, bounds, and that the room rectangles line up with
+ * the layout the generator tests check.
+ */
+class CampusRoomIndexTest {
+    private static final BlockPos ORIGIN = new BlockPos(1000, 64, -500);
+
+    private static String roomAtRelative(CampusRoomIndex index, int x, int y, int z) {
+        return index.roomAt(ORIGIN.getX() + x, ORIGIN.getY() + y, ORIGIN.getZ() + z);
+    }
+
+    @Test
+    void labsAndLobby_areFoundByPosition() {
+        CampusRoomIndex index = CampusRoomIndex.forLayout(ORIGIN);
+
+        assertEquals("lobby", roomAtRelative(index, 100, 1, 10));
+        assertEquals("flow_lab", roomAtRelative(index, 30, 1, 57));
+        assertEquals("genie_lab", roomAtRelative(index, 170, 1, 57));
+        assertEquals("cafeteria", roomAtRelative(index, 100, 1, 180));
+    }
+
+    @Test
+    void mine_includesThePit() {
+        CampusRoomIndex index = CampusRoomIndex.forLayout(ORIGIN);
+        assertEquals("tpu_mine", roomAtRelative(index, 100, -13, 100));
+    }
+
+    @Test
+    void openFloor_isHallway() {
+        CampusRoomIndex index = CampusRoomIndex.forLayout(ORIGIN);
+        assertEquals(CampusRoom.HALLWAY, roomAtRelative(index, 100, 1, 50));
+    }
+
+    @Test
+    void outsideCampus_isNull() {
+        CampusRoomIndex index = CampusRoomIndex.forLayout(ORIGIN);
+
+        assertNull(roomAtRelative(index, -1, 1, 50));
+        assertNull(roomAtRelative(index, 200, 1, 50));
+        assertNull(roomAtRelative(index, 100, 1, 200));
+        assertNull(roomAtRelative(index, 100, 40, 50));
+        assertNull(roomAtRelative(index, 100, -21, 50));
+    }
+
+    @Test
+    void maxBounds_areExclusive() {
+        CampusRoomIndex index = new CampusRoomIndex(BlockPos.ORIGIN, 10, 10, 0, 4,
+            List.of(new CampusRoomIndex.Room("closet", 2, 2, 4, 4)));
+
+        assertEquals("closet", index.roomAt(3, 0, 3));
+        assertEquals(CampusRoom.HALLWAY, index.roomAt(4, 0, 3));
+        assertEquals(CampusRoom.HALLWAY, index.roomAt(3, 0, 4));
+    }
+
+    @Test
+    void laterRoom_winsWhereRoomsOverlap() {
+        CampusRoomIndex index = new CampusRoomIndex(BlockPos.ORIGIN, 10, 10, 0, 4, List.of(
+            new CampusRoomIndex.Room("hall", 0, 0, 10, 10),
+            new CampusRoomIndex.Room("office", 5, 5, 8, 8)));
+
+        assertEquals("office", index.roomAt(6, 1, 6));
+        assertEquals("hall", index.roomAt(1, 1, 1));
+    }
+
+    @Test
+    void labRooms_matchGeneratorLayout() {
+        CampusRoom[] labs = {CampusRoom.FLOW_LAB, CampusRoom.GENIE_LAB, CampusRoom.DOPPL_LAB,
+            CampusRoom.NOTEBOOK_LM_LAB, CampusRoom.OPAL_LAB, CampusRoom.MIXBOARD_LAB};
+        for (int i = 0; i < labs.length; i++) {
+            int[] lab = GoogleplexGeneratorTest.LABS[i];
+            assertEquals(lab[0], labs[i].getMinX(), GoogleplexGeneratorTest.LAB_NAMES[i]);
+            assertEquals(lab[1], labs[i].getMinZ(), GoogleplexGeneratorTest.LAB_NAMES[i]);
+            assertEquals(lab[2], labs[i].getWidth(), GoogleplexGeneratorTest.LAB_NAMES[i]);
+            assertEquals(lab[3], labs[i].getDepth(), GoogleplexGeneratorTest.LAB_NAMES[i]);
+        }
+        assertEquals(GoogleplexGeneratorTest.MINE_START_X, CampusRoom.TPU_MINE.getMinX());
+        assertEquals(GoogleplexGeneratorTest.MINE_SIZE, CampusRoom.TPU_MINE.getWidth());
+        assertEquals(GoogleplexGeneratorTest.CAFE_START_Z, CampusRoom.CAFETERIA.getMinZ());
+        assertEquals(GoogleplexGeneratorTest.CAFE_WIDTH, CampusRoom.CAFETERIA.getWidth());
+    }
+
+    @Test
+    void roomIds_areUnique() {
+        long distinct = Arrays.stream(CampusRoom.values()).map(CampusRoom::getId).distinct().count();
+        assertEquals(CampusRoom.values().length, distinct);
+    }
+}
@@ -0,0 +1,84 @@
+package com.labscraft.world;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the chunk-bucketed position index behind the LabsCraft block index.
+ */
+class ChunkPositionIndexTest {
+
+    private static List<String> within(ChunkPositionIndex<String> index, int minX, int minY, int minZ,
+                                       int maxX, int maxY, int maxZ) {
+        List<String> found = new ArrayList<>();
+        index.forEachWithin(minX, minY, minZ, maxX, maxY, maxZ,
+            (x, y, z, value) -> found.add(value + "@" + x + "," + y + "," + z));
+        return found;
+    }
+
+    @Test
+    void query_findsOnlyEntriesInsideTheBox() {
+        ChunkPositionIndex<String> index = new ChunkPositionIndex<>();
+        index.put(5, 64, 5, "console");
+        index.put(13, 64, 5, "ore");
+        index.put(5, 70, 5, "high");
+
+        assertEquals(List.of("console@5,64,5"), within(index, 0, 61, 0, 10, 67, 10));
+    }
+
+    @Test
+    void query_spansChunkBordersAndNegativeCoordinates() {
+        ChunkPositionIndex<String> index = new ChunkPositionIndex<>();
+        index.put(-1, -60, -1, "a");
+        index.put(0, -60, 0, "b");
+        index.put(-17, -60, 3, "c");
+
+        List<String> found = within(index, -8, -63, -8, 8, -57, 8);
+        assertEquals(2, found.size());
+        assertTrue(found.contains("a@-1,-60,-1"));
+        assertTrue(found.contains("b@0,-60,0"));
+    }
+
+    @Test
+    void positions_roundTripAtWorldExtremes() {
+        ChunkPositionIndex<String> index = new ChunkPositionIndex<>();
+        index.put(-30_000_000, -64, 29_999_999, "edge");
+        index.put(29_999_999, 319, -30_000_000, "other");
+
+        assertEquals(List.of("edge@-30000000,-64,29999999"),
+            within(index, -30_000_000, -64, 29_999_990, -29_999_990, -60, 29_999_999));
+        assertEquals(List.of("other@29999999,319,-30000000"),
+            within(index, 29_999_990, 300, -30_000_000, 29_999_999, 319, -29_999_990));
+    }
+
+    @Test
+    void put_replacesAndRemoveForgets() {
+        ChunkPositionIndex<String> index = new ChunkPositionIndex<>();
+        index.put(1, 2, 3, "old");
+        index.put(1, 2, 3, "new");
+        assertEquals(1, index.size());
+        assertEquals(List.of("new@1,2,3"), within(index, 0, 0, 0, 4, 4, 4));
+
+        index.remove(1, 2, 3);
+        index.remove(1, 2, 3);
+        assertEquals(0, index.size());
+        assertEquals(0, index.chunkCount());
+    }
+
+    @Test
+    void clearChunk_dropsOnlyThatChunk() {
+        ChunkPositionIndex<String> index = new ChunkPositionIndex<>();
+        index.put(1, 0, 1, "a");
+        index.put(2, 5, 15, "b");
+        index.put(17, 0, 1, "c");
+
+        index.clearChunk(0, 0);
+        assertEquals(1, index.size());
+        assertEquals(1, index.chunkCount());
+        assertEquals(List.of("c@17,0,1"), within(index, 0, 0, 0, 31, 15, 15));
+    }
+}
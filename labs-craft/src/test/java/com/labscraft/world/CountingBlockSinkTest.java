@@ -0,0 +1,50 @@
+package com.labscraft.world;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the counting sink used to measure generators without a world behind them.
+ */
+class CountingBlockSinkTest {
+
+    @Test
+    void counts_everyWriteIncludingRepeats() {
+        CountingBlockSink<String> sink = new CountingBlockSink<>();
+        sink.setBlock(0, 0, 0, "air");
+        sink.setBlock(0, 0, 0, "floor");
+        sink.setBlock(1, 0, 0, "floor");
+
+        assertEquals(3, sink.getWrites());
+        assertEquals(1, sink.getCount("air"));
+        assertEquals(2, sink.getCount("floor"));
+        assertEquals(0, sink.getCount("glass"));
+    }
+
+    @Test
+    void counts_keepFirstWriteOrder() {
+        CountingBlockSink<String> sink = new CountingBlockSink<>();
+        sink.setBlock(0, 0, 0, "wall");
+        sink.setBlock(0, 1, 0, "air");
+        sink.setBlock(0, 2, 0, "wall");
+
+        assertEquals(List.of("wall", "air"), List.copyOf(sink.getCounts().keySet()));
+    }
+
+    @Test
+    void bounds_coverEveryWrite() {
+        CountingBlockSink<String> sink = new CountingBlockSink<>();
+        sink.setBlock(5, -20, 3, "stone");
+        sink.setBlock(-2, 16, 199, "quartz");
+
+        assertEquals(-2, sink.getMinX());
+        assertEquals(5, sink.getMaxX());
+        assertEquals(-20, sink.getMinY());
+        assertEquals(16, sink.getMaxY());
+        assertEquals(3, sink.getMinZ());
+        assertEquals(199, sink.getMaxZ());
+    }
+}
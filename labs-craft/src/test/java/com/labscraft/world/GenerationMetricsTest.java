@@ -0,0 +1,56 @@
+package com.labscraft.world;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests how per-phase generation metrics add up across tiles.
+ */
+class GenerationMetricsTest {
+
+    private static BitSet chunks(int... indices) {
+        BitSet set = new BitSet();
+        for (int i : indices) set.set(i);
+        return set;
+    }
+
+    @Test
+    void record_sumsTimeAndBlocksAcrossTiles() {
+        GenerationMetrics metrics = new GenerationMetrics();
+        metrics.record(GoogleplexGenerator.Phase.FOUNDATION, 100, 2_000, chunks(0));
+        metrics.record(GoogleplexGenerator.Phase.FOUNDATION, 50, 1_000, chunks(1));
+        metrics.record(GoogleplexGenerator.Phase.LOBBY, 7, 500, chunks(0));
+
+        assertEquals(150, metrics.getBlocks(GoogleplexGenerator.Phase.FOUNDATION));
+        assertEquals(3_000, metrics.getNanos(GoogleplexGenerator.Phase.FOUNDATION));
+        assertEquals(157, metrics.getTotalBlocks());
+        assertEquals(3_500, metrics.getTotalNanos());
+        assertEquals(0, metrics.getBlocks(GoogleplexGenerator.Phase.CEILING));
+    }
+
+    @Test
+    void chunks_countedOnceWhenTilesShareThem() {
+        // Tiles narrower than a chunk touch the same chunk from both sides of the seam
+        GenerationMetrics metrics = new GenerationMetrics();
+        metrics.record(GoogleplexGenerator.Phase.HALLWAYS, 1, 1, chunks(3, 4));
+        metrics.record(GoogleplexGenerator.Phase.HALLWAYS, 1, 1, chunks(4, 5));
+
+        assertEquals(3, metrics.getChunks(GoogleplexGenerator.Phase.HALLWAYS));
+    }
+
+    @Test
+    void describe_listsSlowestPhaseFirst() {
+        GenerationMetrics metrics = new GenerationMetrics();
+        metrics.record(GoogleplexGenerator.Phase.CLEAR_AREA, 10, 5_000_000, chunks(0));
+        metrics.record(GoogleplexGenerator.Phase.TPU_MINE, 10, 9_000_000, chunks(0));
+
+        List<String> lines = metrics.describe();
+        assertEquals(GoogleplexGenerator.Phase.values().length, lines.size());
+        assertEquals("tpu_mine: 9.00 ms, 10 blocks, 1 chunks", lines.get(0));
+        assertTrue(lines.get(1).startsWith("clear_area: 5.00 ms"));
+    }
+}
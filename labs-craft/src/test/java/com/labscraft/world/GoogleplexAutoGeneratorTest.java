@@ -192,6 +192,53 @@ class GoogleplexAutoGeneratorTest {
         }
     }
 
+    @Nested
+    class StructureOrigin {
+        // Mirrors GoogleplexStructure: corner 96 blocks (6 chunks) back from the start chunk's corner
+        static final int START_CHUNK_OFFSET = 96;
+        // Start chunk from data/labscraft/worldgen/structure_set/googleplex.json
+        static final int START_CHUNK_X = 0;
+        static final int START_CHUNK_Z = 6;
+
+        int[] campusOrigin(int chunkX, int groundY, int chunkZ) {
+            return new int[]{chunkX * 16 - START_CHUNK_OFFSET, groundY, chunkZ * 16 - START_CHUNK_OFFSET};
+        }
+
+        @Test
+        void origin_isChunkAligned_soTilesAreChunks() {
+            int[] origin = campusOrigin(-3, 1, 11);
+            assertEquals(0, Math.floorMod(origin[0], 16));
+            assertEquals(0, Math.floorMod(origin[2], 16));
+        }
+
+        @Test
+        void campus_staysWithinStructureReferenceRadius() {
+            // Vanilla only links chunks to structure starts up to 8 chunks away
+            int[] origin = campusOrigin(START_CHUNK_X, 1, START_CHUNK_Z);
+            int minChunkX = Math.floorDiv(origin[0], 16);
+            int maxChunkX = Math.floorDiv(origin[0] + WIDTH - 1, 16);
+            int minChunkZ = Math.floorDiv(origin[2], 16);
+            int maxChunkZ = Math.floorDiv(origin[2] + DEPTH - 1, 16);
+
+            assertTrue(START_CHUNK_X - minChunkX <= 8 && maxChunkX - START_CHUNK_X <= 8);
+            assertTrue(START_CHUNK_Z - minChunkZ <= 8 && maxChunkZ - START_CHUNK_Z <= 8);
+        }
+
+        @Test
+        void startChunk_containsCampusCenter() {
+            int[] origin = campusOrigin(START_CHUNK_X, 1, START_CHUNK_Z);
+            assertEquals(START_CHUNK_X, Math.floorDiv(origin[0] + WIDTH / 2, 16));
+            assertEquals(START_CHUNK_Z, Math.floorDiv(origin[2] + DEPTH / 2, 16));
+        }
+
+        @Test
+        void defaultPlacement_putsLobbyNearWorldOrigin() {
+            int[] lobby = getLobbySpawnPos(campusOrigin(START_CHUNK_X, 1, START_CHUNK_Z));
+            assertTrue(Math.abs(lobby[0]) <= 16 && Math.abs(lobby[2]) <= 16,
+                "Lobby should be close to the default superflat spawn at 0,0");
+        }
+    }
+
     @Nested
     class IdempotencyGuard {
         @Test
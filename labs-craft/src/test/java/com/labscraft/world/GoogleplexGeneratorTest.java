@@ -1,5 +1,6 @@
 package com.labscraft.world;
 
+import net.minecraft.util.math.BlockPos;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Nested;
 
@@ -7,9 +8,9 @@ import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * Tests the structural layout parameters and design constraints of GoogleplexGenerator.
- * Since the generator directly uses Minecraft block classes that can't be initialized in
- * unit tests, we verify the dimensional/layout logic by mirroring the constants and
- * testing that the structure plan is internally consistent.
+ * Most nested classes mirror the layout constants and check the structure plan is internally
+ * consistent. {@link Headless} runs the real generator: it paints {@link CampusBlock}s into a
+ * {@link BlockSink}, so no Minecraft bootstrap is needed as long as no block state is resolved.
  *
  * These tests catch issues like overlapping rooms, rooms outside the building boundary,
  * and incorrect mine dimensions — the kinds of bugs that matter for the custom map.
@@ -224,7 +225,7 @@ class GoogleplexGeneratorTest {
 
         @Test
         void mine_oreSpawnProbability_is15Percent() {
-            // placeWallWithOre uses Math.random() < 0.15
+            // placeWallWithOre places ore where PositionalRandom.nextDouble(...) < ORE_CHANCE (0.15)
             double probability = 0.15;
             assertTrue(probability > 0.0 && probability < 1.0,
                 "Ore probability should be between 0 and 1");
@@ -481,4 +482,110 @@ class GoogleplexGeneratorTest {
             assertTrue(totalWindowHeight < WALL_HEIGHT, "Windows should fit within wall height");
         }
     }
+
+    @Nested
+    class Headless {
+        private static final long SEED = 1234L;
+
+        private VoxelBuffer<CampusBlock> generateWhole(long seed) {
+            TileOrder order = GoogleplexGenerator.blueprintOrder();
+            VoxelBuffer<CampusBlock> voxels = new VoxelBuffer<>(0, order.getMinY(), 0,
+                order.getSizeX(), order.getSizeY(), order.getSizeZ());
+            new GoogleplexGenerator(BlockPos.ORIGIN, seed).generate(voxels);
+            return voxels;
+        }
+
+        @Test
+        void everyWrite_fallsInsideBlueprintBox() {
+            TileOrder order = GoogleplexGenerator.blueprintOrder();
+            CountingBlockSink<CampusBlock> counter = new CountingBlockSink<>();
+            new GoogleplexGenerator(BlockPos.ORIGIN, SEED).generate(counter);
+
+            assertTrue(counter.getWrites() > 0);
+            assertTrue(counter.getMinX() >= 0 && counter.getMaxX() < order.getSizeX());
+            assertTrue(counter.getMinZ() >= 0 && counter.getMaxZ() < order.getSizeZ());
+            assertTrue(counter.getMinY() >= order.getMinY());
+            assertTrue(counter.getMaxY() < order.getMinY() + order.getSizeY());
+        }
+
+        @Test
+        void composedTiles_matchWholeCampus() {
+            // Tiles are composed independently, so clipping must never change what a column holds
+            VoxelBuffer<CampusBlock> whole = generateWhole(SEED);
+            TileOrder order = GoogleplexGenerator.blueprintOrder();
+
+            for (int t = 0; t < order.tileCount(); t++) {
+                int minX = order.tileMinX(t);
+                int minZ = order.tileMinZ(t);
+                VoxelBuffer<CampusBlock> tile = new GoogleplexGenerator(BlockPos.ORIGIN, SEED)
+                    .compose(minX, minZ, minX + order.tileWidth(t), minZ + order.tileDepth(t));
+
+                for (int y = order.getMinY(); y < order.getMinY() + order.getSizeY(); y++) {
+                    for (int z = minZ; z < minZ + order.tileDepth(t); z++) {
+                        for (int x = minX; x < minX + order.tileWidth(t); x++) {
+                            assertEquals(whole.get(x, y, z), tile.get(x, y, z),
+                                "Tile " + t + " differs at " + x + "," + y + "," + z);
+                        }
+                    }
+                }
+            }
+        }
+
+        @Test
+        void sameSeed_givesSameCampus() {
+            assertArrayEquals(generateWhole(SEED).cells(), generateWhole(SEED).cells());
+        }
+
+        @Test
+        void oreShare_matchesOreChance() {
+            // 4 walls of 50 blocks, 15 deep, each block ore with 15% chance
+            CountingBlockSink<CampusBlock> counter = new CountingBlockSink<>();
+            new GoogleplexGenerator(BlockPos.ORIGIN, SEED).generate(counter);
+
+            int ore = counter.getCount(CampusBlock.TPU_ORE) + counter.getCount(CampusBlock.DEEPSLATE_TPU_ORE);
+            double share = ore / (double) (4 * MINE_SIZE * MINE_DEPTH);
+            assertTrue(share > 0.12 && share < 0.18, "Ore share " + share + " should be near 15%");
+        }
+
+        @Test
+        void mineWalls_holdWhatRegrowthPutsBack() {
+            VoxelBuffer<CampusBlock> voxels = generateWhole(SEED);
+            MineWalls walls = MineWalls.of(CampusRoomIndex.forLayout(BlockPos.ORIGIN));
+            long oreSeed = GoogleplexGenerator.oreSeed(SEED);
+
+            assertEquals(4 * MINE_SIZE * MINE_DEPTH, walls.size());
+            for (int i = 0; i < walls.size(); i++) {
+                int x = walls.x(i);
+                int y = walls.y(i);
+                int z = walls.z(i);
+                assertEquals(GoogleplexGenerator.mineWallBlock(oreSeed, x, y, z), voxels.get(x, y, z),
+                    "Wall " + i + " at " + x + "," + y + "," + z);
+            }
+        }
+
+        @Test
+        void metrics_accountForEveryWrite() {
+            GenerationMetrics metrics = new GenerationMetrics();
+            CountingBlockSink<CampusBlock> counter = new CountingBlockSink<>();
+            GoogleplexGenerator generator = new GoogleplexGenerator(BlockPos.ORIGIN, SEED);
+            generator.setMetrics(metrics);
+            generator.generate(counter);
+
+            assertEquals(1, metrics.getTiles());
+            assertEquals(counter.getWrites(), metrics.getTotalBlocks());
+            // Clearing covers the whole footprint: 13 x 13 chunks of a 200 x 200 campus
+            assertEquals(13 * 13, metrics.getChunks(GoogleplexGenerator.Phase.CLEAR_AREA));
+            assertTrue(metrics.getChunks(GoogleplexGenerator.Phase.LOBBY) < 13 * 13);
+        }
+
+        @Test
+        void joshSpawn_isOpenWithFloorBelow() {
+            VoxelBuffer<CampusBlock> voxels = generateWhole(SEED);
+            BlockPos josh = new GoogleplexGenerator(BlockPos.ORIGIN, SEED).getJoshSpawnPos();
+
+            assertEquals(CampusBlock.AIR, voxels.get(josh.getX(), josh.getY(), josh.getZ()));
+            assertEquals(CampusBlock.AIR, voxels.get(josh.getX(), josh.getY() + 1, josh.getZ()));
+            assertNotEquals(CampusBlock.AIR, voxels.get(josh.getX(), josh.getY() - 1, josh.getZ()));
+        }
+    }
 }
@@ -16,6 +16,10 @@ class GoogleplexStateTest {
     /** Mirrors GoogleplexState's core logic without MC dependencies. */
     static class GenerationTracker {
         private boolean generated = false;
+        private int[] buildOrigin = null;
+        private int buildCursor = 0;
+        private boolean buildSetsSpawn = false;
+        private boolean buildSnapshotTaken = false;
 
         boolean isGenerated() { return generated; }
 
@@ -23,15 +27,64 @@ class GoogleplexStateTest {
             this.generated = generated;
         }
 
+        boolean hasPendingBuild() { return buildOrigin != null; }
+
+        void startBuild(int[] origin, boolean setsSpawn) {
+            buildOrigin = origin;
+            buildCursor = 0;
+            buildSetsSpawn = setsSpawn;
+            buildSnapshotTaken = false;
+        }
+
+        void restartBuild() { buildCursor = 0; }
+
+        void setBuildCursor(int cursor) { buildCursor = cursor; }
+
+        void setBuildSnapshotTaken() { buildSnapshotTaken = true; }
+
+        void cancelBuild() {
+            buildOrigin = null;
+            buildCursor = 0;
+            buildSetsSpawn = false;
+            buildSnapshotTaken = false;
+        }
+
+        void finishBuild() {
+            buildOrigin = null;
+            buildCursor = 0;
+            buildSetsSpawn = false;
+            buildSnapshotTaken = false;
+            generated = true;
+        }
+
         Map<String, Object> serialize() {
             Map<String, Object> data = new HashMap<>();
             data.put("generated", generated);
+            if (buildOrigin != null) {
+                Map<String, Object> build = new HashMap<>();
+                build.put("x", buildOrigin[0]);
+                build.put("y", buildOrigin[1]);
+                build.put("z", buildOrigin[2]);
+                build.put("cursor", buildCursor);
+                build.put("setsSpawn", buildSetsSpawn);
+                build.put("snapshotTaken", buildSnapshotTaken);
+                data.put("pendingBuild", build);
+            }
             return data;
         }
 
+        @SuppressWarnings("unchecked")
         static GenerationTracker deserialize(Map<String, Object> data) {
             GenerationTracker tracker = new GenerationTracker();
             tracker.generated = (boolean) data.getOrDefault("generated", false);
+            if (data.containsKey("pendingBuild")) {
+                Map<String, Object> build = (Map<String, Object>) data.get("pendingBuild");
+                tracker.buildOrigin = new int[]{(int) build.get("x"), (int) build.get("y"), (int) build.get("z")};
+                tracker.buildCursor = (int) build.get("cursor");
+                tracker.buildSetsSpawn = (boolean) build.get("setsSpawn");
+                tracker.buildSnapshotTaken = build.containsKey("snapshotTaken")
+                        ? (boolean) build.get("snapshotTaken") : tracker.buildCursor > 0;
+            }
             return tracker;
         }
     }
@@ -84,4 +137,86 @@ class GoogleplexStateTest {
         var restored = GenerationTracker.deserialize(emptyData);
         assertFalse(restored.isGenerated());
     }
+
+    @Test
+    void pendingBuild_roundTrip_preservesCursor() {
+        var tracker = new GenerationTracker();
+        tracker.startBuild(new int[]{-100, 1, -5}, true);
+        tracker.setBuildCursor(123_456);
+
+        var restored = GenerationTracker.deserialize(tracker.serialize());
+
+        assertTrue(restored.hasPendingBuild());
+        assertArrayEquals(new int[]{-100, 1, -5}, restored.buildOrigin);
+        assertEquals(123_456, restored.buildCursor);
+        assertTrue(restored.buildSetsSpawn);
+        assertFalse(restored.isGenerated(), "A half-finished build must not count as generated");
+    }
+
+    @Test
+    void finishBuild_clearsPendingAndMarksGenerated() {
+        var tracker = new GenerationTracker();
+        tracker.startBuild(new int[]{0, 64, 0}, false);
+        tracker.setBuildCursor(42);
+        tracker.finishBuild();
+
+        var restored = GenerationTracker.deserialize(tracker.serialize());
+        assertFalse(restored.hasPendingBuild());
+        assertTrue(restored.isGenerated());
+    }
+
+    @Test
+    void startBuild_resetsCursor() {
+        var tracker = new GenerationTracker();
+        tracker.startBuild(new int[]{0, 64, 0}, false);
+        tracker.setBuildCursor(500);
+        tracker.startBuild(new int[]{10, 64, 10}, false);
+        assertEquals(0, tracker.buildCursor);
+    }
+
+    @Test
+    void buildStoppedMidCapture_resumesWithoutSnapshot() {
+        var tracker = new GenerationTracker();
+        tracker.startBuild(new int[]{0, 64, 0}, false);
+
+        var restored = GenerationTracker.deserialize(tracker.serialize());
+        assertFalse(restored.buildSnapshotTaken, "The snapshot on disk still belongs to the previous build");
+
+        tracker.setBuildSnapshotTaken();
+        tracker.setBuildCursor(42);
+        assertTrue(GenerationTracker.deserialize(tracker.serialize()).buildSnapshotTaken);
+    }
+
+    @Test
+    void restartBuild_keepsSnapshot() {
+        var tracker = new GenerationTracker();
+        tracker.startBuild(new int[]{0, 64, 0}, false);
+        tracker.setBuildSnapshotTaken();
+        tracker.setBuildCursor(500);
+        tracker.restartBuild();
+
+        assertEquals(0, tracker.buildCursor);
+        assertTrue(tracker.buildSnapshotTaken, "Nothing was stamped before the capture, so it still holds");
+    }
+
+    @Test
+    void buildSavedBeforeSnapshotFlag_countsAsSnapshottedOnceStamping() {
+        Map<String, Object> build = new HashMap<>(Map.of("x", 0, "y", 64, "z", 0, "cursor", 42, "setsSpawn", false));
+        assertTrue(GenerationTracker.deserialize(Map.of("pendingBuild", build)).buildSnapshotTaken);
+
+        build.put("cursor", 0);
+        assertFalse(GenerationTracker.deserialize(Map.of("pendingBuild", build)).buildSnapshotTaken);
+    }
+
+    @Test
+    void cancelBuild_clearsPendingWithoutMarkingGenerated() {
+        var tracker = new GenerationTracker();
+        tracker.startBuild(new int[]{0, 64, 0}, true);
+        tracker.setBuildCursor(42);
+        tracker.cancelBuild();
+
+        var restored = GenerationTracker.deserialize(tracker.serialize());
+        assertFalse(restored.hasPendingBuild(), "A cancelled build must not resume on restart");
+        assertFalse(restored.isGenerated(), "A cancelled build leaves the campus unfinished");
+    }
 }
@@ -0,0 +1,92 @@
+package com.labscraft.world;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the two-stage bookkeeping that delays regrowth of mined wall positions.
+ */
+class MineDepletionTest {
+
+    @Test
+    void minedPositions_waitForPromotion() {
+        MineDepletion depletion = new MineDepletion();
+        assertTrue(depletion.mark(5));
+        assertFalse(depletion.mark(5));
+
+        assertEquals(-1, depletion.nextReady());
+        depletion.promote();
+        assertEquals(5, depletion.nextReady());
+    }
+
+    @Test
+    void positionMinedAfterPromotion_waitsForTheNext() {
+        MineDepletion depletion = new MineDepletion();
+        depletion.mark(1);
+        depletion.promote();
+        depletion.mark(2);
+
+        assertEquals(1, depletion.nextReady());
+        assertEquals(1, depletion.nextReady());
+        assertEquals(2, depletion.count());
+    }
+
+    @Test
+    void nextReady_walksRoundRobin() {
+        MineDepletion depletion = new MineDepletion();
+        depletion.mark(3);
+        depletion.mark(7);
+        depletion.mark(100);
+        depletion.promote();
+
+        assertEquals(3, depletion.nextReady());
+        assertEquals(7, depletion.nextReady());
+        depletion.clear(3);
+        assertEquals(100, depletion.nextReady());
+        assertEquals(7, depletion.nextReady());
+    }
+
+    @Test
+    void readyCount_boundsOneLapOfTheWalk() {
+        MineDepletion depletion = new MineDepletion();
+        depletion.mark(3);
+        depletion.mark(7);
+        depletion.mark(100);
+        depletion.promote();
+        depletion.mark(8);
+        assertEquals(3, depletion.readyCount());
+
+        // Clearing where the walk started must not make it go round again
+        int first = depletion.nextReady();
+        depletion.clear(first);
+        assertEquals(7, depletion.nextReady());
+        assertEquals(100, depletion.nextReady());
+        assertEquals(2, depletion.readyCount());
+    }
+
+    @Test
+    void clear_emptiesOnceEveryPositionIsRefilled() {
+        MineDepletion depletion = new MineDepletion();
+        depletion.mark(0);
+        depletion.mark(9);
+        depletion.promote();
+        depletion.clear(0);
+        assertFalse(depletion.isEmpty());
+        depletion.clear(9);
+        assertTrue(depletion.isEmpty());
+    }
+
+    @Test
+    void words_roundTrip() {
+        MineDepletion depletion = new MineDepletion();
+        depletion.mark(70);
+        depletion.promote();
+        depletion.mark(2);
+
+        MineDepletion restored = MineDepletion.fromWords(depletion.freshWords(), depletion.readyWords());
+        assertEquals(2, restored.count());
+        assertEquals(70, restored.nextReady());
+        assertFalse(restored.mark(2));
+    }
+}
@@ -0,0 +1,58 @@
+package com.labscraft.world;
+
+import net.minecraft.util.math.BlockPos;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the numbering of mine wall positions that depletion bits are keyed by.
+ */
+class MineWallsTest {
+
+    // A 4x3 pit, 2 layers down from y=0
+    private static final MineWalls WALLS = new MineWalls(10, 20, 14, 23, 0, 2);
+
+    @Test
+    void size_isPerimeterTimesDepth() {
+        assertEquals((2 * 4 + 2 * 3) * 2, WALLS.size());
+    }
+
+    @Test
+    void indices_roundTripThroughPositions() {
+        Set<String> positions = new HashSet<>();
+        for (int i = 0; i < WALLS.size(); i++) {
+            int x = WALLS.x(i);
+            int y = WALLS.y(i);
+            int z = WALLS.z(i);
+            assertEquals(i, WALLS.indexOf(x, y, z), "Index " + i + " at " + x + "," + y + "," + z);
+            assertTrue(positions.add(x + "," + y + "," + z), "Two indices share " + x + "," + y + "," + z);
+        }
+    }
+
+    @Test
+    void wallsRingThePitWithoutCorners() {
+        assertTrue(WALLS.indexOf(10, 0, 19) >= 0);
+        assertTrue(WALLS.indexOf(13, 0, 23) >= 0);
+        assertTrue(WALLS.indexOf(9, -1, 20) >= 0);
+        assertTrue(WALLS.indexOf(14, -1, 22) >= 0);
+
+        // Corners, the pit itself, and layers above or below
+        assertEquals(-1, WALLS.indexOf(9, 0, 19));
+        assertEquals(-1, WALLS.indexOf(14, 0, 23));
+        assertEquals(-1, WALLS.indexOf(11, 0, 21));
+        assertEquals(-1, WALLS.indexOf(10, 1, 19));
+        assertEquals(-1, WALLS.indexOf(10, -2, 19));
+    }
+
+    @Test
+    void of_campusWithoutMine_isNull() {
+        CampusRoomIndex campus = new CampusRoomIndex(BlockPos.ORIGIN, 16, 16, 0, 4,
+            List.of(new CampusRoomIndex.Room("lobby", 0, 0, 8, 8)));
+        assertNull(MineWalls.of(campus));
+    }
+}
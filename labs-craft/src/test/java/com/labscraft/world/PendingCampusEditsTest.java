@@ -0,0 +1,98 @@
+package com.labscraft.world;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the bookkeeping of deferred campus chunks. PersistentState requires MC bootstrap, so this
+ * mirrors PendingCampusEdits' two indexes (chunks per campus, campuses per chunk) with plain keys.
+ */
+class PendingCampusEditsTest {
+
+    /** Mirrors PendingCampusEdits without MC dependencies; campuses are keyed by name. */
+    static class PendingEdits {
+        private final Map<String, Set<Long>> byCampus = new LinkedHashMap<>();
+        private final Map<Long, List<String>> byChunk = new HashMap<>();
+
+        void defer(String campus, long chunk) {
+            if (!byCampus.computeIfAbsent(campus, key -> new HashSet<>()).add(chunk)) return;
+            byChunk.computeIfAbsent(chunk, key -> new ArrayList<>(1)).add(campus);
+        }
+
+        boolean hasPending(long chunk) {
+            return byChunk.containsKey(chunk);
+        }
+
+        List<String> take(long chunk) {
+            List<String> campuses = byChunk.remove(chunk);
+            if (campuses == null) return List.of();
+            for (String campus : campuses) {
+                Set<Long> chunks = byCampus.get(campus);
+                chunks.remove(chunk);
+                if (chunks.isEmpty()) byCampus.remove(campus);
+            }
+            return campuses;
+        }
+
+        Set<Long> chunksOf(String campus) {
+            return byCampus.getOrDefault(campus, Set.of());
+        }
+
+        int removeCampus(String campus) {
+            Set<Long> chunks = byCampus.remove(campus);
+            if (chunks == null) return 0;
+            for (long chunk : chunks) {
+                List<String> campuses = byChunk.get(chunk);
+                campuses.remove(campus);
+                if (campuses.isEmpty()) byChunk.remove(chunk);
+            }
+            return chunks.size();
+        }
+    }
+
+    @Test
+    void take_returnsCampusOnceAndForgetsChunk() {
+        PendingEdits edits = new PendingEdits();
+        edits.defer("a", 7L);
+        edits.defer("a", 7L);
+
+        assertEquals(List.of("a"), edits.take(7L));
+        assertFalse(edits.hasPending(7L));
+        assertEquals(List.of(), edits.take(7L));
+        assertTrue(edits.chunksOf("a").isEmpty());
+    }
+
+    @Test
+    void overlappingCampuses_shareAChunk() {
+        PendingEdits edits = new PendingEdits();
+        edits.defer("a", 7L);
+        edits.defer("b", 7L);
+        edits.defer("b", 8L);
+
+        assertEquals(List.of("a", "b"), edits.take(7L));
+        assertEquals(Set.of(8L), edits.chunksOf("b"));
+    }
+
+    @Test
+    void removeCampus_leavesOtherCampusesPending() {
+        PendingEdits edits = new PendingEdits();
+        edits.defer("a", 7L);
+        edits.defer("a", 8L);
+        edits.defer("b", 8L);
+
+        assertEquals(2, edits.removeCampus("a"));
+        assertFalse(edits.hasPending(7L));
+        assertTrue(edits.hasPending(8L));
+        assertEquals(List.of("b"), edits.take(8L));
+        assertEquals(0, edits.removeCampus("a"));
+    }
+}
@@ -0,0 +1,64 @@
+package com.labscraft.world;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the position-seeded randomness behind deterministic TPU ore placement.
+ */
+class PositionalRandomTest {
+
+    @Test
+    void sameSeedAndPosition_giveSameValue() {
+        assertEquals(PositionalRandom.nextDouble(42L, 75, -3, 74), PositionalRandom.nextDouble(42L, 75, -3, 74));
+        assertEquals(PositionalRandom.split(42L, "labscraft:tpu_ore"), PositionalRandom.split(42L, "labscraft:tpu_ore"));
+    }
+
+    @Test
+    void differentSeed_changesValues() {
+        int differing = 0;
+        for (int x = 0; x < 100; x++) {
+            if (PositionalRandom.nextDouble(1L, x, 0, 0) != PositionalRandom.nextDouble(2L, x, 0, 0)) differing++;
+        }
+        assertEquals(100, differing);
+    }
+
+    @Test
+    void axes_areNotInterchangeable() {
+        assertNotEquals(PositionalRandom.hash(7L, 1, 2, 3), PositionalRandom.hash(7L, 3, 2, 1));
+        assertNotEquals(PositionalRandom.hash(7L, 1, 2, 3), PositionalRandom.hash(7L, 2, 1, 3));
+    }
+
+    @Test
+    void salt_separatesFeatures() {
+        assertNotEquals(PositionalRandom.split(7L, "labscraft:tpu_ore"), PositionalRandom.split(7L, "labscraft:other"));
+        assertNotEquals(7L, PositionalRandom.split(7L, ""));
+    }
+
+    @Test
+    void values_stayInUnitInterval() {
+        for (int i = -500; i < 500; i++) {
+            double value = PositionalRandom.nextDouble(99L, i, i * 3, -i);
+            assertTrue(value >= 0.0 && value < 1.0, "value out of range: " + value);
+        }
+    }
+
+    @Test
+    void oreChance_matchesOverMineWalls() {
+        // Same walls placeWallWithOre covers: the 50x50 pit's perimeter, 15 blocks deep
+        long seed = PositionalRandom.split(12345L, "labscraft:tpu_ore");
+        int ore = 0;
+        int total = 0;
+        for (int y = 0; y > -15; y--) {
+            for (int i = 75; i < 125; i++) {
+                int[][] walls = {{i, 74}, {i, 125}, {74, i}, {125, i}};
+                for (int[] wall : walls) {
+                    if (PositionalRandom.nextDouble(seed, wall[0], y, wall[1]) < 0.15) ore++;
+                    total++;
+                }
+            }
+        }
+        assertEquals(0.15, (double) ore / total, 0.03);
+    }
+}
@@ -0,0 +1,60 @@
+package com.labscraft.world;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the run-length packing behind Googleplex blueprint files.
+ */
+class RunLengthTest {
+
+    @Test
+    void pack_roundTripsValueAndLength() {
+        int run = RunLength.pack(513, 100_000);
+        assertEquals(513, RunLength.value(run));
+        assertEquals(100_000, RunLength.length(run));
+    }
+
+    @Test
+    void encode_mergesEqualNeighbours() {
+        short[] cells = {0, 0, 0, 5, 5, 1, 0};
+        int[] runs = RunLength.encode(cells);
+
+        assertEquals(4, runs.length);
+        assertEquals(RunLength.pack(0, 3), runs[0]);
+        assertEquals(RunLength.pack(5, 2), runs[1]);
+        assertEquals(RunLength.pack(1, 1), runs[2]);
+        assertEquals(RunLength.pack(0, 1), runs[3]);
+    }
+
+    @Test
+    void decode_restoresCells() {
+        short[] cells = new short[5000];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = (short) ((i / 37) % 4);
+        }
+        assertArrayEquals(cells, RunLength.decode(RunLength.encode(cells), cells.length));
+    }
+
+    @Test
+    void encode_splitsRunsLongerThanMaxLength() {
+        short[] cells = new short[RunLength.MAX_LENGTH + 10];
+        int[] runs = RunLength.encode(cells);
+
+        assertEquals(2, runs.length);
+        assertEquals(RunLength.MAX_LENGTH, RunLength.length(runs[0]));
+        assertEquals(10, RunLength.length(runs[1]));
+    }
+
+    @Test
+    void encode_rejectsOutOfRangeValues() {
+        assertThrows(IllegalArgumentException.class, () -> RunLength.encode(new short[]{(short) (RunLength.MAX_VALUE + 1)}));
+    }
+
+    @Test
+    void decode_rejectsWrongVolume() {
+        int[] runs = RunLength.encode(new short[]{1, 1, 2});
+        assertThrows(IllegalArgumentException.class, () -> RunLength.decode(runs, 4));
+    }
+}
@@ -0,0 +1,152 @@
+package com.labscraft.world;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the tile-major voxel numbering used by Googleplex blueprints.
+ */
+class TileOrderTest {
+
+    @Test
+    void volume_coversWholeBox_includingPartialTiles() {
+        TileOrder order = new TileOrder(40, -3, 5, 20);
+        assertEquals(40 * 5 * 20, order.volume());
+        assertEquals(3 * 2, order.tileCount());
+    }
+
+    @Test
+    void index_isBijective() {
+        TileOrder order = new TileOrder(37, -2, 4, 19);
+        Set<Integer> seen = new HashSet<>();
+        for (int x = 0; x < 37; x++) {
+            for (int y = -2; y < 2; y++) {
+                for (int z = 0; z < 19; z++) {
+                    int index = order.index(x, y, z);
+                    assertTrue(index >= 0 && index < order.volume());
+                    assertTrue(seen.add(index), "duplicate index " + index);
+                }
+            }
+        }
+        assertEquals(order.volume(), seen.size());
+    }
+
+    @Test
+    void firstTile_isNumberedBeforeSecond() {
+        TileOrder order = new TileOrder(32, 0, 2, 16);
+        assertEquals(0, order.index(0, 0, 0));
+        assertEquals(1, order.index(1, 0, 0));
+        assertEquals(16, order.index(0, 0, 1));
+        assertEquals(256, order.index(0, 1, 0));
+        assertEquals(512, order.index(16, 0, 0));
+    }
+
+    @Test
+    void walker_advance_matchesIndex() {
+        TileOrder order = new TileOrder(37, -2, 4, 19);
+        TileOrder.Walker walker = order.walker(0);
+        int steps = 0;
+        do {
+            assertEquals(walker.index(), order.index(walker.x(), walker.y(), walker.z()));
+            steps++;
+        } while (walker.advance());
+        assertEquals(order.volume(), steps);
+        assertEquals(order.volume(), walker.index());
+    }
+
+    @Test
+    void walker_seek_landsOnSameVoxelAsAdvance() {
+        TileOrder order = new TileOrder(37, -2, 4, 19);
+        TileOrder.Walker stepped = order.walker(0);
+        TileOrder.Walker sought = order.walker(0);
+        while (stepped.advance()) {
+            if (stepped.index() % 97 != 0) continue;
+            sought.seek(stepped.index());
+            assertEquals(stepped.x(), sought.x());
+            assertEquals(stepped.y(), sought.y());
+            assertEquals(stepped.z(), sought.z());
+        }
+    }
+
+    @Test
+    void tiles_partitionTheBox() {
+        TileOrder order = new TileOrder(37, -2, 4, 19);
+        int columns = 0;
+        for (int t = 0; t < order.tileCount(); t++) {
+            assertEquals(order.tileStart(t) + order.tileWidth(t) * order.tileDepth(t) * 4, order.tileStart(t + 1));
+            assertEquals(order.tileStart(t),
+                order.index(order.tileMinX(t), -2, order.tileMinZ(t)));
+            columns += order.tileWidth(t) * order.tileDepth(t);
+        }
+        assertEquals(37 * 19, columns);
+        assertEquals(order.volume(), order.tileStart(order.tileCount()));
+    }
+
+    @Test
+    void edgeTiles_areClippedToBox() {
+        TileOrder order = new TileOrder(37, 0, 1, 19);
+        int last = order.tileCount() - 1;
+        assertEquals(32, order.tileMinX(last));
+        assertEquals(16, order.tileMinZ(last));
+        assertEquals(5, order.tileWidth(last));
+        assertEquals(3, order.tileDepth(last));
+    }
+
+    @Test
+    void campusBox_splitsInto13By13Tiles() {
+        // GoogleplexGenerator.blueprintOrder(): 200x200 columns from y=-20 up to WALL_HEIGHT + 5
+        TileOrder order = new TileOrder(200, -20, 37, 200);
+        assertEquals(169, order.tileCount());
+        assertEquals(200 * 37 * 200, order.volume());
+        assertEquals(8, order.tileWidth(12));
+    }
+
+    @Test
+    void seek_outsideVolume_throws() {
+        TileOrder order = new TileOrder(4, 0, 4, 4);
+        assertThrows(IndexOutOfBoundsException.class, () -> order.walker(order.volume() + 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> order.walker(-1));
+    }
+
+    @Test
+    void emptyBox_isRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new TileOrder(0, 0, 1, 1));
+    }
+
+    @Test
+    void tileOf_matchesTileBounds() {
+        TileOrder order = new TileOrder(37, -2, 4, 19);
+        for (int t = 0; t < order.tileCount(); t++) {
+            for (int z = order.tileMinZ(t); z < order.tileMinZ(t) + order.tileDepth(t); z++) {
+                for (int x = order.tileMinX(t); x < order.tileMinX(t) + order.tileWidth(t); x++) {
+                    assertEquals(t, order.tileOf(x, z), "Column " + x + "," + z);
+                }
+            }
+        }
+    }
+
+    @Test
+    void tileStart_ofNextTile_followsLastVoxelOfTile() {
+        // A build has finished a tile once its cursor reaches the next tile's start
+        TileOrder order = new TileOrder(37, -2, 4, 19);
+        for (int t = 0; t < order.tileCount(); t++) {
+            int lastX = order.tileMinX(t) + order.tileWidth(t) - 1;
+            int lastZ = order.tileMinZ(t) + order.tileDepth(t) - 1;
+            int topY = order.getMinY() + order.getSizeY() - 1;
+            assertEquals(order.tileStart(t + 1), order.index(lastX, topY, lastZ) + 1);
+        }
+    }
+
+    @Test
+    void tileAt_matchesTileStarts() {
+        TileOrder order = new TileOrder(37, -2, 4, 19);
+        for (int t = 0; t < order.tileCount(); t++) {
+            assertEquals(t, order.tileAt(order.tileStart(t)));
+            assertEquals(t, order.tileAt(order.tileStart(t + 1) - 1));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.labscraft.world;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests last-writer-wins composition and overdraw accounting of the generator's voxel buffer.
+ * Strings stand in for block states, which can't be created in unit tests.
+ */
+class VoxelBufferTest {
+
+    @Test
+    void laterWrite_replacesEarlierOne() {
+        VoxelBuffer<String> voxels = new VoxelBuffer<>(0, -20, 0, 16, 37, 16);
+        voxels.setBlock(3, 0, 4, "air");
+        voxels.setBlock(3, 0, 4, "floor");
+        voxels.setBlock(3, 0, 4, "lobby_floor");
+
+        assertEquals("lobby_floor", voxels.get(3, 0, 4));
+        assertNull(voxels.get(3, 1, 4));
+    }
+
+    @Test
+    void overdraw_countsEveryWriteButEachCellOnce() {
+        VoxelBuffer<String> voxels = new VoxelBuffer<>(0, 0, 0, 4, 4, 4);
+        for (int i = 0; i < 4; i++) {
+            voxels.setBlock(1, 1, 1, "layer" + i);
+        }
+        voxels.setBlock(2, 2, 2, "once");
+
+        assertEquals(5, voxels.getWrites());
+        assertEquals(2, voxels.getCellsWritten());
+    }
+
+    @Test
+    void fillRow_matchesSingleWrites() {
+        VoxelBuffer<String> filled = new VoxelBuffer<>(0, 0, 0, 8, 2, 2);
+        VoxelBuffer<String> single = new VoxelBuffer<>(0, 0, 0, 8, 2, 2);
+        filled.setBlock(3, 1, 1, "wall");
+        single.setBlock(3, 1, 1, "wall");
+        filled.fillRow(2, 6, 1, 1, "glass");
+        for (int x = 2; x < 6; x++) single.setBlock(x, 1, 1, "glass");
+
+        assertArrayEquals(single.cells(), filled.cells());
+        assertEquals(single.getWrites(), filled.getWrites());
+        assertEquals(4, filled.getCellsWritten());
+    }
+
+    @Test
+    void fillRow_outsideBuffer_throws() {
+        VoxelBuffer<String> voxels = new VoxelBuffer<>(0, 0, 0, 4, 1, 1);
+        assertThrows(IllegalArgumentException.class, () -> voxels.fillRow(2, 5, 0, 0, "air"));
+    }
+
+    @Test
+    void cells_useTileOrderLayout() {
+        // A buffer covering tile 1 of a 32-wide box must line up with TileOrder's numbering
+        TileOrder order = new TileOrder(32, -2, 3, 16);
+        VoxelBuffer<String> voxels = new VoxelBuffer<>(16, -2, 0, 16, 3, 16);
+        voxels.setBlock(21, 0, 7, "glass");
+
+        int local = order.index(21, 0, 7) - order.tileStart(1);
+        assertEquals(1, voxels.cells()[local]);
+        assertEquals("glass", voxels.palette().get(voxels.cells()[local] - 1));
+    }
+
+    @Test
+    void palette_reusesIdsForRepeatedValues() {
+        String stone = "stone";
+        VoxelBuffer<String> voxels = new VoxelBuffer<>(0, 0, 0, 4, 1, 4);
+        voxels.setBlock(0, 0, 0, stone);
+        voxels.setBlock(1, 0, 0, stone);
+        voxels.setBlock(2, 0, 0, "dirt");
+
+        assertEquals(2, voxels.palette().size());
+    }
+
+    @Test
+    void writeOutsideBuffer_throws() {
+        VoxelBuffer<String> voxels = new VoxelBuffer<>(16, 0, 16, 16, 4, 16);
+        assertThrows(IllegalArgumentException.class, () -> voxels.setBlock(15, 0, 16, "x"));
+        assertThrows(IllegalArgumentException.class, () -> voxels.setBlock(16, 4, 16, "x"));
+        assertFalse(voxels.containsColumn(32, 20));
+        assertTrue(voxels.containsColumn(31, 31));
+    }
+}